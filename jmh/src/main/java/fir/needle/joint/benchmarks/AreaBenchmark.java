@@ -0,0 +1,103 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.benchmarks;
+
+import fir.needle.joint.io.ByteBufferArea;
+import fir.needle.joint.io.ByteToCharArea;
+import fir.needle.joint.io.CharArea;
+import fir.needle.joint.io.CharSequenceToCharArea;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading all the chars of a message through the area adapters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AreaBenchmark {
+
+    @Param({"16", "1024"})
+    private int length;
+
+    private CharArea heapBytes;
+    private CharArea directBytes;
+    private CharArea chars;
+
+    @Setup
+    public void setUp() {
+        final StringBuilder message = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            message.append((char) ('a' + i % 26));
+        }
+
+        final byte[] bytes = message.toString().getBytes(StandardCharsets.US_ASCII);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(length);
+        direct.put(bytes).clear();
+
+        heapBytes = new ByteToCharArea(new ByteBufferArea(ByteBuffer.wrap(bytes)));
+        directBytes = new ByteToCharArea(new ByteBufferArea(direct));
+        chars = new CharSequenceToCharArea(message.toString());
+    }
+
+    @Benchmark
+    public int heapByteToCharArea() {
+        return sum(heapBytes);
+    }
+
+    @Benchmark
+    public int directByteToCharArea() {
+        return sum(directBytes);
+    }
+
+    @Benchmark
+    public int charSequenceToCharArea() {
+        return sum(chars);
+    }
+
+    private int sum(final CharArea area) {
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            sum += area.getChar(i);
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.benchmarks;
+
+import fir.needle.joint.logging.AsyncLogger;
+import fir.needle.joint.logging.JulLogger;
+import fir.needle.joint.logging.Logger;
+import fir.needle.joint.logging.OverflowPolicy;
+import fir.needle.joint.logging.SystemLogger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * Throughput of the loggers writing to sinks which discard the output, so the cost of formatting, locking and
+ * allocation is measured rather than the cost of I/O.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerBenchmark {
+    private static final IllegalStateException ERROR = new IllegalStateException("Benchmark");
+
+    @Param({"system", "jul", "async"})
+    private String type;
+
+    private Logger logger;
+    private AsyncLogger asyncLogger;
+    private PrintStream out;
+    private PrintStream err;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        out = System.out;
+        err = System.err;
+        final PrintStream discarding = new PrintStream(new DiscardingOutputStream());
+        System.setOut(discarding);
+        System.setErr(discarding);
+
+        switch (type) {
+            case "system":
+                logger = SystemLogger.info();
+                break;
+
+            case "jul":
+                final java.util.logging.Logger julLogger = java.util.logging.Logger.getLogger("benchmark");
+                julLogger.setUseParentHandlers(false);
+                julLogger.addHandler(new DiscardingHandler());
+                logger = new JulLogger(julLogger);
+                break;
+
+            default:
+                asyncLogger = new AsyncLogger(SystemLogger.info(), 1 << 14, 256, OverflowPolicy.DROP, Thread::new);
+                asyncLogger.start();
+                logger = asyncLogger;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        if (asyncLogger != null) {
+            asyncLogger.close();
+        }
+
+        System.setOut(out);
+        System.setErr(err);
+    }
+
+    @Benchmark
+    public void info() {
+        logger.info("Order has been filled");
+    }
+
+    @Benchmark
+    public void infoTemplate() {
+        logger.info("Order {} has been filled at {}", 42, 1_000_000L);
+    }
+
+    @Benchmark
+    public void disabledTrace() {
+        logger.trace("Order {} has been filled at {}", 42, 1_000_000L);
+    }
+
+    @Benchmark
+    public void errorWithThrowable() {
+        logger.error("Order has been rejected", ERROR);
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+    }
+
+    private static final class DiscardingHandler extends Handler {
+
+        @Override
+        public void publish(final LogRecord record) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.benchmarks;
+
+import fir.needle.joint.colleclions.ConcurrentObjectPool;
+import fir.needle.joint.colleclions.ObjectPool;
+import fir.needle.joint.colleclions.Pool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Borrowing and releasing an object by a pool owned by the thread, which is the uncontended baseline, and by
+ * a pool shared by all the threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoolBenchmark {
+
+    @Benchmark
+    public Object threadOwnedObjectPool(final ThreadPool state) {
+        return borrowAndRelease(state.pool);
+    }
+
+    @Benchmark
+    public Object sharedConcurrentObjectPool(final SharedPool state) {
+        return borrowAndRelease(state.pool);
+    }
+
+    private static Object borrowAndRelease(final Pool<byte[]> pool) {
+        final byte[] item = pool.borrow();
+        pool.release(item);
+        return item;
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadPool {
+        private final Pool<byte[]> pool = new ObjectPool<>(16, () -> new byte[64]);
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedPool {
+        private final Pool<byte[]> pool = new ConcurrentObjectPool<>(new ObjectPool<>(16, () -> new byte[64]));
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.benchmarks;
+
+import fir.needle.joint.colleclions.SimpleParametrizedPrefixTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Route lookup in a generated table of {@code services * resources} routes such as
+ * {@code /service7/resource42/{id}}, looked up by paths in a pseudo-random order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrefixTreeBenchmark {
+    private static final int PATH_COUNT = 1024;
+
+    @Param({"10", "100"})
+    private int services;
+
+    @Param({"10", "100"})
+    private int resources;
+
+    private SimpleParametrizedPrefixTree<String> tree;
+    private String[] staticPaths;
+    private String[] parametrizedPaths;
+
+    @Setup
+    public void setUp() {
+        tree = new SimpleParametrizedPrefixTree<>("/");
+        for (int service = 0; service < services; service++) {
+            for (int resource = 0; resource < resources; resource++) {
+                final String route = "/service" + service + "/resource" + resource;
+                tree.insert(route + "/list", route);
+                tree.insert(route + "/{id}", route + "/{id}");
+            }
+        }
+
+        staticPaths = new String[PATH_COUNT];
+        parametrizedPaths = new String[PATH_COUNT];
+        long random = 42;
+        for (int i = 0; i < PATH_COUNT; i++) {
+            random = random * 6364136223846793005L + 1442695040888963407L;
+            final int service = (int) ((random >>> 33) % services);
+            final int resource = (int) ((random >>> 17 & 0xFFFF) % resources);
+
+            staticPaths[i] = "/service" + service + "/resource" + resource + "/list";
+            parametrizedPaths[i] = "/service" + service + "/resource" + resource + "/id/" + i;
+        }
+    }
+
+    @Benchmark
+    public String findStaticRoute(final Lookup lookup) {
+        return tree.find(staticPaths[lookup.next()], lookup.parameters);
+    }
+
+    @Benchmark
+    public String findParametrizedRoute(final Lookup lookup) {
+        return tree.find(parametrizedPaths[lookup.next()], lookup.parameters);
+    }
+
+    @State(Scope.Thread)
+    public static class Lookup {
+        private final List<SimpleParametrizedPrefixTree.Parameter> parameters = new ArrayList<>();
+        private int index;
+
+        int next() {
+            parameters.clear();
+            index = (index + 1) & (PATH_COUNT - 1);
+            return index;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.colleclions;
+
+import fir.needle.joint.io.ByteArea;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map with raw byte sequence keys. Keys are copied into a single internal byte array
+ * on {@link #put(ByteArea, long, long, Object) put}, and lookups compare the bytes of a {@link ByteArea}
+ * region in place against the stored keys, so {@link #get(ByteArea, long, long) get} allocates nothing.
+ * <p>
+ * Collisions are resolved with linear probing and removal uses backward shift, so there are no tombstones.
+ * {@code null} values are not allowed.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <V> type of the values
+ */
+public class ByteAreaHashMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.65f;
+    private static final int EMPTY = -1;
+
+    private final float loadFactor;
+
+    private long[] hashes;
+    private int[] keyOffsets;
+    private int[] keyLengths;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    private byte[] keys;
+    private int keysLength;
+    private int garbageLength;
+
+    public ByteAreaHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+    }
+
+    public ByteAreaHashMap(final int initialCapacity, final float loadFactor) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Initial capacity should be > 0");
+        }
+
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("Load factor should be in range (0, 1)");
+        }
+
+        this.loadFactor = loadFactor;
+        this.keys = new byte[initialCapacity * 8];
+        allocateSlots(Integer.highestOneBit((int) Math.ceil(initialCapacity / loadFactor) - 1) << 1);
+    }
+
+    /**
+     * Associates the value with the key given by the area region. The key bytes are copied.
+     *
+     * @param key        area containing the key
+     * @param startIndex index of the first byte of the key
+     * @param length     key length in bytes
+     * @param value      value to be associated, not {@code null}
+     * @return the previous value associated with the key or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final ByteArea key, final long startIndex, final long length, final V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+
+        final long hash = XxHash64.hash(key, startIndex, length);
+        int index = (int) hash & mask;
+
+        while (keyLengths[index] != EMPTY) {
+            if (isKeyAt(index, hash, key, startIndex, length)) {
+                final V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        hashes[index] = hash;
+        keyOffsets[index] = storeKey(key, startIndex, (int) length);
+        keyLengths[index] = (int) length;
+        values[index] = value;
+
+        if (++size > resizeThreshold) {
+            rehash(hashes.length << 1);
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(final ByteArea key, final long startIndex, final long length) {
+        final int index = indexOf(key, startIndex, length);
+        return index == EMPTY ? null : (V) values[index];
+    }
+
+    public boolean containsKey(final ByteArea key, final long startIndex, final long length) {
+        return indexOf(key, startIndex, length) != EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(final ByteArea key, final long startIndex, final long length) {
+        int index = indexOf(key, startIndex, length);
+        if (index == EMPTY) {
+            return null;
+        }
+
+        final V previous = (V) values[index];
+        garbageLength += keyLengths[index];
+        clearSlot(index);
+        size--;
+
+        int next = (index + 1) & mask;
+        while (keyLengths[next] != EMPTY) {
+            final int ideal = (int) hashes[next] & mask;
+            if (((next - ideal) & mask) >= ((next - index) & mask)) {
+                hashes[index] = hashes[next];
+                keyOffsets[index] = keyOffsets[next];
+                keyLengths[index] = keyLengths[next];
+                values[index] = values[next];
+                clearSlot(next);
+                index = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keyLengths, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+        keysLength = 0;
+        garbageLength = 0;
+    }
+
+    private int indexOf(final ByteArea key, final long startIndex, final long length) {
+        final long hash = XxHash64.hash(key, startIndex, length);
+        int index = (int) hash & mask;
+
+        while (keyLengths[index] != EMPTY) {
+            if (isKeyAt(index, hash, key, startIndex, length)) {
+                return index;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return EMPTY;
+    }
+
+    private boolean isKeyAt(
+            final int index,
+            final long hash,
+            final ByteArea key,
+            final long startIndex,
+            final long length) {
+
+        if (hashes[index] != hash || keyLengths[index] != length) {
+            return false;
+        }
+
+        final int offset = keyOffsets[index];
+        for (int i = 0; i < length; i++) {
+            if (keys[offset + i] != key.getByte(startIndex + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int storeKey(final ByteArea key, final long startIndex, final int length) {
+        if (keysLength + length > keys.length) {
+            if (garbageLength > keysLength >> 1) {
+                compactKeys();
+            }
+
+            if (keysLength + length > keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(keys.length << 1, keysLength + length));
+            }
+        }
+
+        final int offset = keysLength;
+        for (int i = 0; i < length; i++) {
+            keys[offset + i] = key.getByte(startIndex + i);
+        }
+
+        keysLength += length;
+        return offset;
+    }
+
+    private void compactKeys() {
+        final byte[] compacted = new byte[keys.length];
+        int compactedLength = 0;
+
+        for (int i = 0; i < keyLengths.length; i++) {
+            if (keyLengths[i] != EMPTY) {
+                System.arraycopy(keys, keyOffsets[i], compacted, compactedLength, keyLengths[i]);
+                keyOffsets[i] = compactedLength;
+                compactedLength += keyLengths[i];
+            }
+        }
+
+        keys = compacted;
+        keysLength = compactedLength;
+        garbageLength = 0;
+    }
+
+    private void rehash(final int newCapacity) {
+        final long[] oldHashes = hashes;
+        final int[] oldKeyOffsets = keyOffsets;
+        final int[] oldKeyLengths = keyLengths;
+        final Object[] oldValues = values;
+
+        allocateSlots(newCapacity);
+
+        for (int i = 0; i < oldKeyLengths.length; i++) {
+            if (oldKeyLengths[i] == EMPTY) {
+                continue;
+            }
+
+            int index = (int) oldHashes[i] & mask;
+            while (keyLengths[index] != EMPTY) {
+                index = (index + 1) & mask;
+            }
+
+            hashes[index] = oldHashes[i];
+            keyOffsets[index] = oldKeyOffsets[i];
+            keyLengths[index] = oldKeyLengths[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocateSlots(final int capacity) {
+        hashes = new long[capacity];
+        keyOffsets = new int[capacity];
+        keyLengths = new int[capacity];
+        values = new Object[capacity];
+        Arrays.fill(keyLengths, EMPTY);
+
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * loadFactor);
+    }
+
+    private void clearSlot(final int index) {
+        keyLengths[index] = EMPTY;
+        values[index] = null;
+    }
+}
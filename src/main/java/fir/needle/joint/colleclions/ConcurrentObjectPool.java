@@ -27,6 +27,12 @@ import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
+/**
+ * Thread-safe {@link Pool} which guards another pool with a lock. Uncontended borrowing and releasing do not
+ * allocate, while the lock allocates nodes to queue threads which contend for it.
+ *
+ * @param <T> type of the pooled objects
+ */
 public class ConcurrentObjectPool<T> implements Pool<T> {
 
     private final Pool<T> objectPool;
@@ -0,0 +1,224 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.colleclions;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map with {@code int} keys which never boxes them. {@code null} is the no-entry sentinel:
+ * it marks free slots and is returned by lookups of absent keys, so {@code null} values are not allowed.
+ * <p>
+ * Collisions are resolved with linear probing and removal uses backward shift, so there are no tombstones.
+ * Iteration goes through a {@link Cursor} which is reused by the map and allocates nothing.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <V> type of the values
+ */
+public class Int2ObjectMap<V> {
+    private final float loadFactor;
+    private final Cursor<V> cursor = new Cursor<>(this);
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    public Int2ObjectMap() {
+        this(PrimitiveHashing.DEFAULT_CAPACITY, PrimitiveHashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    public Int2ObjectMap(final int initialCapacity, final float loadFactor) {
+        final int slots = PrimitiveHashing.slotsFor(initialCapacity, loadFactor);
+        this.loadFactor = loadFactor;
+        allocateSlots(slots);
+    }
+
+    /**
+     * @param key   key of the entry
+     * @param value value to be associated, not {@code null}
+     * @return the previous value associated with the key or {@code null} if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final int key, final V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not allowed");
+        }
+
+        int index = PrimitiveHashing.hash(key) & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                final V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(final int key) {
+        final int index = indexOf(key);
+        return index == -1 ? null : (V) values[index];
+    }
+
+    public boolean containsKey(final int key) {
+        return indexOf(key) != -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(final int key) {
+        int index = indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+
+        final V previous = (V) values[index];
+        values[index] = null;
+        size--;
+
+        int next = (index + 1) & mask;
+        while (values[next] != null) {
+            if (PrimitiveHashing.shouldShift(PrimitiveHashing.hash(keys[next]) & mask, index, next, mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                values[next] = null;
+                index = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the cursor of this map positioned before the first entry. The same instance is returned on every
+     * call, so nested iterations are not supported. The map must not be modified while it is iterated.
+     *
+     * @return the reset cursor
+     */
+    public Cursor<V> cursor() {
+        cursor.index = -1;
+        return cursor;
+    }
+
+    private int indexOf(final int key) {
+        int index = PrimitiveHashing.hash(key) & mask;
+        while (values[index] != null) {
+            if (keys[index] == key) {
+                return index;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private void rehash(final int newCapacity) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+
+        allocateSlots(newCapacity);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+
+            int index = PrimitiveHashing.hash(oldKeys[i]) & mask;
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocateSlots(final int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * loadFactor);
+    }
+
+    public static final class Cursor<V> {
+        private final Int2ObjectMap<V> map;
+        private int index = -1;
+
+        private Cursor(final Int2ObjectMap<V> map) {
+            this.map = map;
+        }
+
+        /**
+         * @return {@code true} if the cursor moved to the next entry, {@code false} if there are no more entries
+         */
+        public boolean next() {
+            final Object[] values = map.values;
+            while (++index < values.length) {
+                if (values[index] != null) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        public int key() {
+            return map.keys[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        public V value() {
+            return (V) map.values[index];
+        }
+    }
+}
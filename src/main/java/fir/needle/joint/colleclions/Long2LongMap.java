@@ -0,0 +1,248 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.colleclions;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map with {@code long} keys and values which never boxes them. The missing value given on
+ * construction is the no-entry sentinel: it marks free slots and is returned by lookups of absent keys, so it
+ * cannot be stored as a value.
+ * <p>
+ * Collisions are resolved with linear probing and removal uses backward shift, so there are no tombstones.
+ * Iteration goes through a {@link Cursor} which is reused by the map and allocates nothing.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class Long2LongMap {
+    private final long missingValue;
+    private final float loadFactor;
+    private final Cursor cursor = new Cursor(this);
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int resizeThreshold;
+    private int size;
+
+    public Long2LongMap(final long missingValue) {
+        this(PrimitiveHashing.DEFAULT_CAPACITY, PrimitiveHashing.DEFAULT_LOAD_FACTOR, missingValue);
+    }
+
+    public Long2LongMap(final int initialCapacity, final float loadFactor, final long missingValue) {
+        final int slots = PrimitiveHashing.slotsFor(initialCapacity, loadFactor);
+        this.missingValue = missingValue;
+        this.loadFactor = loadFactor;
+        allocateSlots(slots);
+    }
+
+    /**
+     * @param key   key of the entry
+     * @param value value to be associated, not the missing value
+     * @return the previous value associated with the key or the missing value if there was none
+     */
+    public long put(final long key, final long value) {
+        if (value == missingValue) {
+            throw new IllegalArgumentException("The missing value cannot be stored");
+        }
+
+        int index = PrimitiveHashing.hash(key) & mask;
+        while (values[index] != missingValue) {
+            if (keys[index] == key) {
+                final long previous = values[index];
+                values[index] = value;
+                return previous;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+
+        if (++size > resizeThreshold) {
+            rehash(keys.length << 1);
+        }
+
+        return missingValue;
+    }
+
+    /**
+     * Adds the delta to the value associated with the key, treating an absent key as zero.
+     *
+     * @param key   key of the entry
+     * @param delta to be added
+     * @return the new value
+     */
+    public long addAndGet(final long key, final long delta) {
+        final int index = indexOf(key);
+        final long value = (index == -1 ? 0 : values[index]) + delta;
+
+        if (index == -1) {
+            put(key, value);
+        } else if (value == missingValue) {
+            throw new IllegalArgumentException("The missing value cannot be stored");
+        } else {
+            values[index] = value;
+        }
+
+        return value;
+    }
+
+    public long get(final long key) {
+        final int index = indexOf(key);
+        return index == -1 ? missingValue : values[index];
+    }
+
+    public boolean containsKey(final long key) {
+        return indexOf(key) != -1;
+    }
+
+    public long remove(final long key) {
+        int index = indexOf(key);
+        if (index == -1) {
+            return missingValue;
+        }
+
+        final long previous = values[index];
+        values[index] = missingValue;
+        size--;
+
+        int next = (index + 1) & mask;
+        while (values[next] != missingValue) {
+            if (PrimitiveHashing.shouldShift(PrimitiveHashing.hash(keys[next]) & mask, index, next, mask)) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                values[next] = missingValue;
+                index = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        return previous;
+    }
+
+    public long missingValue() {
+        return missingValue;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(values, missingValue);
+        size = 0;
+    }
+
+    /**
+     * Returns the cursor of this map positioned before the first entry. The same instance is returned on every
+     * call, so nested iterations are not supported. The map must not be modified while it is iterated.
+     *
+     * @return the reset cursor
+     */
+    public Cursor cursor() {
+        cursor.index = -1;
+        return cursor;
+    }
+
+    private int indexOf(final long key) {
+        int index = PrimitiveHashing.hash(key) & mask;
+        while (values[index] != missingValue) {
+            if (keys[index] == key) {
+                return index;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private void rehash(final int newCapacity) {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+
+        allocateSlots(newCapacity);
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == missingValue) {
+                continue;
+            }
+
+            int index = PrimitiveHashing.hash(oldKeys[i]) & mask;
+            while (values[index] != missingValue) {
+                index = (index + 1) & mask;
+            }
+
+            keys[index] = oldKeys[i];
+            values[index] = oldValues[i];
+        }
+    }
+
+    private void allocateSlots(final int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(values, missingValue);
+
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * loadFactor);
+    }
+
+    public static final class Cursor {
+        private final Long2LongMap map;
+        private int index = -1;
+
+        private Cursor(final Long2LongMap map) {
+            this.map = map;
+        }
+
+        /**
+         * @return {@code true} if the cursor moved to the next entry, {@code false} if there are no more entries
+         */
+        public boolean next() {
+            final long[] values = map.values;
+            while (++index < values.length) {
+                if (values[index] != map.missingValue) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        public long key() {
+            return map.keys[index];
+        }
+
+        public long value() {
+            return map.values[index];
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.colleclions;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer, backed by an array, so neither
+ * {@link #offer(Object)} nor {@link #poll()} allocate.
+ * <p>
+ * Producers claim a slot with a CAS on the producer index and then store the element. The consumer frees a
+ * slot before advancing the consumer index, so a producer never overwrites an element not consumed yet.
+ *
+ * @param <E> type of the elements
+ */
+public class MpscArrayQueue<E> {
+    private final AtomicReferenceArray<E> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    public MpscArrayQueue(final int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity should be a power of two");
+        }
+
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds an element to the queue. May be called by any thread.
+     *
+     * @param element to be added, not {@code null}
+     * @return {@code false} if the queue is full
+     */
+    public boolean offer(final E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Null elements are not allowed");
+        }
+
+        final int capacity = mask + 1;
+        long index;
+        do {
+            index = producerIndex.get();
+            if (index - consumerIndex.get() >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(index, index + 1));
+
+        buffer.lazySet((int) index & mask, element);
+        return true;
+    }
+
+    /**
+     * Removes the head of the queue. Must be called by the single consumer thread.
+     *
+     * @return the head of the queue or {@code null} if the queue is empty
+     */
+    public E poll() {
+        final long index = consumerIndex.get();
+        final int offset = (int) index & mask;
+
+        E element = buffer.get(offset);
+        if (element == null) {
+            if (index == producerIndex.get()) {
+                return null;
+            }
+
+            do {
+                element = buffer.get(offset);
+            } while (element == null);
+        }
+
+        buffer.lazySet(offset, null);
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+
+    /**
+     * Removes up to the limit of elements and passes them to the consumer. Must be called by the single
+     * consumer thread.
+     *
+     * @param consumer to process the elements
+     * @param limit    max number of elements to be removed
+     * @return the number of elements removed
+     */
+    public int drain(final Consumer<? super E> consumer, final int limit) {
+        int drained = 0;
+        while (drained < limit) {
+            final E element = poll();
+            if (element == null) {
+                break;
+            }
+
+            drained++;
+            consumer.accept(element);
+        }
+
+        return drained;
+    }
+
+    public boolean isEmpty() {
+        return consumerIndex.get() == producerIndex.get();
+    }
+
+    public int size() {
+        final long consumed = consumerIndex.get();
+        return (int) (producerIndex.get() - consumed);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
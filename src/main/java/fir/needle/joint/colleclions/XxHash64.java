@@ -0,0 +1,219 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.colleclions;
+
+import fir.needle.joint.io.ByteArea;
+import fir.needle.joint.io.CharArea;
+
+/**
+ * xxHash64 over {@link ByteArea} and {@link CharArea} regions, computed in place without copying.
+ * <p>
+ * A {@link CharArea} is hashed by {@link #hashChars(CharArea, long, long)} as its UTF-16LE representation, so
+ * the result is equal to the hash of the same chars encoded to UTF-16LE bytes.
+ */
+public final class XxHash64 {
+    public static final long DEFAULT_SEED = 0;
+
+    private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME_3 = 0x165667B19E3779F9L;
+    private static final long PRIME_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME_5 = 0x27D4EB2F165667C5L;
+
+    private static final int STRIPE_LENGTH = 32;
+
+    private XxHash64() {
+
+    }
+
+    public static long hash(final ByteArea area, final long startIndex, final long length) {
+        return hash(area, startIndex, length, DEFAULT_SEED);
+    }
+
+    public static long hash(final ByteArea area, final long startIndex, final long length, final long seed) {
+        final long end = startIndex + length;
+        long index = startIndex;
+        long hash;
+
+        if (length >= STRIPE_LENGTH) {
+            long v1 = seed + PRIME_1 + PRIME_2;
+            long v2 = seed + PRIME_2;
+            long v3 = seed;
+            long v4 = seed - PRIME_1;
+
+            final long limit = end - STRIPE_LENGTH;
+            do {
+                v1 = round(v1, getLong(area, index));
+                v2 = round(v2, getLong(area, index + 8));
+                v3 = round(v3, getLong(area, index + 16));
+                v4 = round(v4, getLong(area, index + 24));
+                index += STRIPE_LENGTH;
+            } while (index <= limit);
+
+            hash = merge(v1, v2, v3, v4);
+        } else {
+            hash = seed + PRIME_5;
+        }
+
+        hash += length;
+
+        while (index + 8 <= end) {
+            hash = mixLong(hash, getLong(area, index));
+            index += 8;
+        }
+
+        if (index + 4 <= end) {
+            hash = mixInt(hash, getInt(area, index));
+            index += 4;
+        }
+
+        while (index < end) {
+            hash = mixByte(hash, area.getByte(index));
+            index++;
+        }
+
+        return avalanche(hash);
+    }
+
+    public static long hashChars(final CharArea area, final long startIndex, final long length) {
+        return hashChars(area, startIndex, length, DEFAULT_SEED);
+    }
+
+    public static long hashChars(final CharArea area, final long startIndex, final long length, final long seed) {
+        final long byteLength = length << 1;
+        final long end = startIndex + length;
+        long index = startIndex;
+        long hash;
+
+        if (byteLength >= STRIPE_LENGTH) {
+            long v1 = seed + PRIME_1 + PRIME_2;
+            long v2 = seed + PRIME_2;
+            long v3 = seed;
+            long v4 = seed - PRIME_1;
+
+            final long limit = end - STRIPE_LENGTH / 2;
+            do {
+                v1 = round(v1, getCharsLong(area, index));
+                v2 = round(v2, getCharsLong(area, index + 4));
+                v3 = round(v3, getCharsLong(area, index + 8));
+                v4 = round(v4, getCharsLong(area, index + 12));
+                index += STRIPE_LENGTH / 2;
+            } while (index <= limit);
+
+            hash = merge(v1, v2, v3, v4);
+        } else {
+            hash = seed + PRIME_5;
+        }
+
+        hash += byteLength;
+
+        while (index + 4 <= end) {
+            hash = mixLong(hash, getCharsLong(area, index));
+            index += 4;
+        }
+
+        if (index + 2 <= end) {
+            hash = mixInt(hash, getCharsInt(area, index));
+            index += 2;
+        }
+
+        if (index < end) {
+            final char value = area.getChar(index);
+            hash = mixByte(hash, (byte) value);
+            hash = mixByte(hash, (byte) (value >>> 8));
+        }
+
+        return avalanche(hash);
+    }
+
+    private static long getLong(final ByteArea area, final long index) {
+        return (area.getByte(index) & 0xFFL) |
+                (area.getByte(index + 1) & 0xFFL) << 8 |
+                (area.getByte(index + 2) & 0xFFL) << 16 |
+                (area.getByte(index + 3) & 0xFFL) << 24 |
+                (area.getByte(index + 4) & 0xFFL) << 32 |
+                (area.getByte(index + 5) & 0xFFL) << 40 |
+                (area.getByte(index + 6) & 0xFFL) << 48 |
+                (area.getByte(index + 7) & 0xFFL) << 56;
+    }
+
+    private static long getInt(final ByteArea area, final long index) {
+        return (area.getByte(index) & 0xFFL) |
+                (area.getByte(index + 1) & 0xFFL) << 8 |
+                (area.getByte(index + 2) & 0xFFL) << 16 |
+                (area.getByte(index + 3) & 0xFFL) << 24;
+    }
+
+    private static long getCharsLong(final CharArea area, final long index) {
+        return (long) area.getChar(index) |
+                (long) area.getChar(index + 1) << 16 |
+                (long) area.getChar(index + 2) << 32 |
+                (long) area.getChar(index + 3) << 48;
+    }
+
+    private static long getCharsInt(final CharArea area, final long index) {
+        return (long) area.getChar(index) |
+                (long) area.getChar(index + 1) << 16;
+    }
+
+    private static long round(final long accumulator, final long input) {
+        return Long.rotateLeft(accumulator + input * PRIME_2, 31) * PRIME_1;
+    }
+
+    private static long mergeRound(final long accumulator, final long value) {
+        return (accumulator ^ round(0, value)) * PRIME_1 + PRIME_4;
+    }
+
+    private static long merge(final long v1, final long v2, final long v3, final long v4) {
+        long hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) +
+                Long.rotateLeft(v4, 18);
+
+        hash = mergeRound(hash, v1);
+        hash = mergeRound(hash, v2);
+        hash = mergeRound(hash, v3);
+        return mergeRound(hash, v4);
+    }
+
+    private static long mixLong(final long hash, final long value) {
+        return Long.rotateLeft(hash ^ round(0, value), 27) * PRIME_1 + PRIME_4;
+    }
+
+    private static long mixInt(final long hash, final long value) {
+        return Long.rotateLeft(hash ^ value * PRIME_1, 23) * PRIME_2 + PRIME_3;
+    }
+
+    private static long mixByte(final long hash, final byte value) {
+        return Long.rotateLeft(hash ^ (value & 0xFFL) * PRIME_5, 11) * PRIME_1;
+    }
+
+    private static long avalanche(final long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= PRIME_2;
+        hash ^= hash >>> 29;
+        hash *= PRIME_3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+}
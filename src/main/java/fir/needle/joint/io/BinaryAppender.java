@@ -0,0 +1,161 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+/**
+ * Reusable encoder of binary fields appended to a {@link ByteAppendable}, the streaming counterpart of
+ * {@link BinaryFlyweight}: fields encoded by the appender could be read back by the flyweight.
+ */
+public class BinaryAppender {
+    private ByteAppendable target;
+
+    public BinaryAppender() {
+
+    }
+
+    public BinaryAppender(final ByteAppendable target) {
+        this.target = target;
+    }
+
+    public BinaryAppender wrap(final ByteAppendable target) {
+        this.target = target;
+        return this;
+    }
+
+    public BinaryAppender appendByte(final byte value) {
+        target.appendByte(value);
+        return this;
+    }
+
+    public BinaryAppender appendShortLE(final short value) {
+        return appendLE(value, Short.BYTES);
+    }
+
+    public BinaryAppender appendShortBE(final short value) {
+        return appendBE(value, Short.BYTES);
+    }
+
+    public BinaryAppender appendIntLE(final int value) {
+        return appendLE(value, Integer.BYTES);
+    }
+
+    public BinaryAppender appendIntBE(final int value) {
+        return appendBE(value, Integer.BYTES);
+    }
+
+    public BinaryAppender appendLongLE(final long value) {
+        return appendLE(value, Long.BYTES);
+    }
+
+    public BinaryAppender appendLongBE(final long value) {
+        return appendBE(value, Long.BYTES);
+    }
+
+    public BinaryAppender appendFloatLE(final float value) {
+        return appendIntLE(Float.floatToRawIntBits(value));
+    }
+
+    public BinaryAppender appendFloatBE(final float value) {
+        return appendIntBE(Float.floatToRawIntBits(value));
+    }
+
+    public BinaryAppender appendDoubleLE(final double value) {
+        return appendLongLE(Double.doubleToRawLongBits(value));
+    }
+
+    public BinaryAppender appendDoubleBE(final double value) {
+        return appendLongBE(Double.doubleToRawLongBits(value));
+    }
+
+    public BinaryAppender appendVarLong(final long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            target.appendByte((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+
+        target.appendByte((byte) remaining);
+        return this;
+    }
+
+    public BinaryAppender appendZigZagLong(final long value) {
+        return appendVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Appends a varint length-prefixed string. Every char is appended as a single byte, so the string
+     * is expected to be ASCII.
+     *
+     * @param value string to be appended
+     * @return this appender
+     */
+    public BinaryAppender appendString(final CharSequence value) {
+        final int length = value.length();
+        appendVarLong(length);
+
+        for (int i = 0; i < length; i++) {
+            target.appendByte((byte) value.charAt(i));
+        }
+
+        return this;
+    }
+
+    /**
+     * Appends a varint length-prefixed region of bytes as is.
+     *
+     * @param area       area to copy from
+     * @param startIndex index of the first byte
+     * @param length     number of bytes
+     * @return this appender
+     */
+    public BinaryAppender appendBytes(final ByteArea area, final long startIndex, final long length) {
+        appendVarLong(length);
+        target.appendArea(area, startIndex, length);
+        return this;
+    }
+
+    /**
+     * @param value to be encoded
+     * @return how many bytes {@link #appendVarLong(long)} appends for the value
+     */
+    public static int varLongLength(final long value) {
+        return value == 0 ? 1 : (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7;
+    }
+
+    private BinaryAppender appendLE(final long value, final int size) {
+        for (int i = 0; i < size; i++) {
+            target.appendByte((byte) (value >>> (i << 3)));
+        }
+
+        return this;
+    }
+
+    private BinaryAppender appendBE(final long value, final int size) {
+        for (int i = size - 1; i >= 0; i--) {
+            target.appendByte((byte) (value >>> (i << 3)));
+        }
+
+        return this;
+    }
+}
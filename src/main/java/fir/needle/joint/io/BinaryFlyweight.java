@@ -0,0 +1,270 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+/**
+ * Reusable flyweight for reading and writing binary messages in place over a {@link ByteArea}.
+ * <p>
+ * Fixed layout fields are accessed at offsets relative to the message start given on
+ * {@link #wrap(ByteArea, long)}, in either byte order. Variable length fields (varints, zig-zag varints and
+ * length-prefixed strings) are accessed sequentially through a cursor which is reset to the message start
+ * on every wrap. Strings are read as views over the area without copying.
+ * <p>
+ * Writing requires the wrapped area to be a {@link MutableByteArea}. Nothing is allocated, so a single
+ * instance could be re-wrapped over any number of messages.
+ */
+public class BinaryFlyweight {
+    private ByteArea area;
+    private MutableByteArea mutableArea;
+    private long offset;
+    private long position;
+
+    public BinaryFlyweight wrap(final ByteArea area, final long offset) {
+        this.area = area;
+        this.mutableArea = area instanceof MutableByteArea ? (MutableByteArea) area : null;
+        this.offset = offset;
+        this.position = 0;
+        return this;
+    }
+
+    public ByteArea area() {
+        return area;
+    }
+
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * @return cursor position relative to the message start
+     */
+    public long position() {
+        return position;
+    }
+
+    public BinaryFlyweight position(final long position) {
+        this.position = position;
+        return this;
+    }
+
+    public byte getByte(final long index) {
+        return area.getByte(offset + index);
+    }
+
+    public short getShortLE(final long index) {
+        return (short) getLE(index, Short.BYTES);
+    }
+
+    public short getShortBE(final long index) {
+        return (short) getBE(index, Short.BYTES);
+    }
+
+    public int getIntLE(final long index) {
+        return (int) getLE(index, Integer.BYTES);
+    }
+
+    public int getIntBE(final long index) {
+        return (int) getBE(index, Integer.BYTES);
+    }
+
+    public long getLongLE(final long index) {
+        return getLE(index, Long.BYTES);
+    }
+
+    public long getLongBE(final long index) {
+        return getBE(index, Long.BYTES);
+    }
+
+    public float getFloatLE(final long index) {
+        return Float.intBitsToFloat(getIntLE(index));
+    }
+
+    public float getFloatBE(final long index) {
+        return Float.intBitsToFloat(getIntBE(index));
+    }
+
+    public double getDoubleLE(final long index) {
+        return Double.longBitsToDouble(getLongLE(index));
+    }
+
+    public double getDoubleBE(final long index) {
+        return Double.longBitsToDouble(getLongBE(index));
+    }
+
+    public void putByte(final long index, final byte value) {
+        mutableArea().putByte(offset + index, value);
+    }
+
+    public void putShortLE(final long index, final short value) {
+        putLE(index, value, Short.BYTES);
+    }
+
+    public void putShortBE(final long index, final short value) {
+        putBE(index, value, Short.BYTES);
+    }
+
+    public void putIntLE(final long index, final int value) {
+        putLE(index, value, Integer.BYTES);
+    }
+
+    public void putIntBE(final long index, final int value) {
+        putBE(index, value, Integer.BYTES);
+    }
+
+    public void putLongLE(final long index, final long value) {
+        putLE(index, value, Long.BYTES);
+    }
+
+    public void putLongBE(final long index, final long value) {
+        putBE(index, value, Long.BYTES);
+    }
+
+    public void putFloatLE(final long index, final float value) {
+        putIntLE(index, Float.floatToRawIntBits(value));
+    }
+
+    public void putFloatBE(final long index, final float value) {
+        putIntBE(index, Float.floatToRawIntBits(value));
+    }
+
+    public void putDoubleLE(final long index, final double value) {
+        putLongLE(index, Double.doubleToRawLongBits(value));
+    }
+
+    public void putDoubleBE(final long index, final double value) {
+        putLongBE(index, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint at the cursor and moves the cursor past it.
+     *
+     * @return the value read
+     */
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte b = area.getByte(offset + position++);
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalStateException("Malformed varint at " + (position - 1));
+    }
+
+    public long readZigZagLong() {
+        final long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a varint length-prefixed ASCII string at the cursor and moves the cursor past it.
+     *
+     * @param view to be pointed to the string bytes
+     * @return the view given
+     */
+    public CharAreaToCharSequence readString(final CharAreaToCharSequence view) {
+        final long length = readVarLong();
+        view.wrapBytes(area, offset + position, (int) length);
+        position += length;
+        return view;
+    }
+
+    public void writeVarLong(final long value) {
+        final MutableByteArea target = mutableArea();
+
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            target.putByte(offset + position++, (byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+
+        target.putByte(offset + position++, (byte) remaining);
+    }
+
+    public void writeZigZagLong(final long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a varint length-prefixed string at the cursor and moves the cursor past it. Every char is
+     * written as a single byte, so the string is expected to be ASCII.
+     *
+     * @param value string to be written
+     */
+    public void writeString(final CharSequence value) {
+        final int length = value.length();
+        writeVarLong(length);
+
+        final MutableByteArea target = mutableArea();
+        for (int i = 0; i < length; i++) {
+            target.putByte(offset + position++, (byte) value.charAt(i));
+        }
+    }
+
+    private long getLE(final long index, final int size) {
+        final long start = offset + index;
+        long value = 0;
+        for (int i = size - 1; i >= 0; i--) {
+            value = (value << 8) | (area.getByte(start + i) & 0xFF);
+        }
+
+        return value;
+    }
+
+    private long getBE(final long index, final int size) {
+        final long start = offset + index;
+        long value = 0;
+        for (int i = 0; i < size; i++) {
+            value = (value << 8) | (area.getByte(start + i) & 0xFF);
+        }
+
+        return value;
+    }
+
+    private void putLE(final long index, final long value, final int size) {
+        final MutableByteArea target = mutableArea();
+        final long start = offset + index;
+        for (int i = 0; i < size; i++) {
+            target.putByte(start + i, (byte) (value >>> (i << 3)));
+        }
+    }
+
+    private void putBE(final long index, final long value, final int size) {
+        final MutableByteArea target = mutableArea();
+        final long start = offset + index;
+        for (int i = 0; i < size; i++) {
+            target.putByte(start + i, (byte) (value >>> ((size - 1 - i) << 3)));
+        }
+    }
+
+    private MutableByteArea mutableArea() {
+        if (mutableArea == null) {
+            throw new IllegalStateException("Wrapped area is read-only");
+        }
+
+        return mutableArea;
+    }
+}
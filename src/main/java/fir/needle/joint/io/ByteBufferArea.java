@@ -0,0 +1,93 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link MutableByteArea} backed by a {@link ByteBuffer}. Indexes are absolute positions in the buffer, so
+ * reading and writing by index never touches the buffer's own position and limit, and the area could be
+ * re-pointed to another buffer with {@link #wrap(ByteBuffer)} without any copying.
+ * <p>
+ * The area is also a {@link ByteAppendable} which appends at the buffer's position.
+ */
+public class ByteBufferArea implements MutableByteArea, ByteAppendable {
+    private ByteBuffer buffer;
+    private ByteBuffer view;
+
+    public ByteBufferArea() {
+
+    }
+
+    public ByteBufferArea(final ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public byte getByte(final long index) {
+        return buffer.get((int) index);
+    }
+
+    @Override
+    public void putByte(final long index, final byte value) {
+        buffer.put((int) index, value);
+    }
+
+    @Override
+    public void appendByte(final byte toAppend) {
+        buffer.put(toAppend);
+    }
+
+    @Override
+    public void appendArea(final ByteArea area, final long startIndex, final long length) {
+        for (long i = 0; i < length; i++) {
+            buffer.put(area.getByte(startIndex + i));
+        }
+    }
+
+    public void wrap(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.view = null;
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public long length() {
+        return buffer.limit();
+    }
+
+    /**
+     * @return a duplicate of the wrapped buffer which is created once per {@link #wrap(ByteBuffer)}
+     * and shares the content with it, so its position and limit could be changed freely
+     */
+    ByteBuffer view() {
+        if (view == null) {
+            view = buffer.duplicate();
+        }
+
+        return view;
+    }
+}
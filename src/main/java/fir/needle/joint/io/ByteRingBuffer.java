@@ -0,0 +1,291 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring buffer of variable length byte records over a heap or direct {@link ByteBuffer}.
+ * Any number of producer threads could claim space concurrently, while records have to be read by
+ * a single consumer thread.
+ * <p>
+ * A producer claims space for a record with {@link #tryClaim(int, Claim)}, writes the record through the
+ * {@link Claim} which is a {@link ByteAppendable}, and then commits it. The consumer drains committed records
+ * in batches with {@link #read(ByteRecordHandler, int)}: each record is passed to the handler as a region of
+ * a {@link ByteArea} view over the buffer and released as soon as the handler returns. Neither side
+ * allocates.
+ * <p>
+ * Records are aligned to {@link #ALIGNMENT} bytes. A record which does not fit into the space left before
+ * the end of the buffer is placed at its beginning and the gap is skipped by the consumer. Record headers
+ * are kept apart from the data in an {@link AtomicIntegerArray}, which publishes the data of a record to
+ * the consumer on commit.
+ */
+public class ByteRingBuffer {
+    public static final int ALIGNMENT = 8;
+
+    private static final int ALIGNMENT_SHIFT = 3;
+    private static final int NOT_COMMITTED = 0;
+
+    private final ByteBuffer buffer;
+    private final ByteBufferArea area;
+    private final AtomicIntegerArray headers;
+    private final int capacity;
+    private final int mask;
+    private final int maxRecordLength;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    public ByteRingBuffer(final int capacity) {
+        this(ByteBuffer.allocateDirect(capacity));
+    }
+
+    public ByteRingBuffer(final ByteBuffer buffer) {
+        final int capacity = buffer.capacity();
+        if (capacity < 2 * ALIGNMENT || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity should be a power of two >= " + 2 * ALIGNMENT);
+        }
+
+        this.buffer = buffer;
+        this.area = new ByteBufferArea(buffer);
+        this.headers = new AtomicIntegerArray(capacity >> ALIGNMENT_SHIFT);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.maxRecordLength = capacity >> 1;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int maxRecordLength() {
+        return maxRecordLength;
+    }
+
+    /**
+     * @return how many bytes are claimed by producers and not released by the consumer yet
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Claims space for a record of the given length. The record is not visible to the consumer
+     * until {@link Claim#commit()} is called.
+     *
+     * @param length length of the record in bytes
+     * @param claim  reusable claim to be pointed to the space claimed
+     * @return {@code false} if there is not enough space in the buffer
+     */
+    public boolean tryClaim(final int length, final Claim claim) {
+        final int index = claim(length);
+        if (index < 0) {
+            return false;
+        }
+
+        claim.wrap(this, index, length);
+        return true;
+    }
+
+    /**
+     * Copies the region of the area into the buffer as a committed record.
+     *
+     * @param source     area to copy from
+     * @param startIndex index of the first byte of the record
+     * @param length     length of the record in bytes
+     * @return {@code false} if there is not enough space in the buffer
+     */
+    public boolean write(final ByteArea source, final long startIndex, final int length) {
+        final int index = claim(length);
+        if (index < 0) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            buffer.put(index + i, source.getByte(startIndex + i));
+        }
+
+        commit(index, length);
+        return true;
+    }
+
+    public int read(final ByteRecordHandler handler) {
+        return read(handler, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Passes committed records to the handler in the order they have been claimed, stopping at the first
+     * record which is not committed yet. Must be called by a single consumer thread.
+     *
+     * @param handler to process the records, the region given is valid only until the handler returns
+     * @param limit   max number of records to be read
+     * @return the number of records read
+     */
+    public int read(final ByteRecordHandler handler, final int limit) {
+        final long currentHead = head.get();
+        int bytesRead = 0;
+        int recordsRead = 0;
+
+        try {
+            while (recordsRead < limit && bytesRead < capacity) {
+                final int index = (int) (currentHead + bytesRead) & mask;
+                final int header = headers.get(index >> ALIGNMENT_SHIFT);
+                if (header == NOT_COMMITTED) {
+                    break;
+                }
+
+                headers.lazySet(index >> ALIGNMENT_SHIFT, NOT_COMMITTED);
+
+                if (header < 0) {
+                    bytesRead += -header;
+                    continue;
+                }
+
+                final int length = header - 1;
+                bytesRead += align(length);
+                recordsRead++;
+
+                handler.onRecord(area, index, length);
+            }
+        } finally {
+            if (bytesRead > 0) {
+                head.lazySet(currentHead + bytesRead);
+            }
+        }
+
+        return recordsRead;
+    }
+
+    private int claim(final int length) {
+        if (length < 0 || length > maxRecordLength) {
+            throw new IllegalArgumentException("Record length should be in range [0, " + maxRecordLength + "]");
+        }
+
+        final int alignedLength = align(length);
+
+        long currentTail;
+        int padding;
+        do {
+            final long currentHead = head.get();
+            currentTail = tail.get();
+
+            final int toEnd = capacity - ((int) currentTail & mask);
+            padding = alignedLength > toEnd ? toEnd : 0;
+
+            if (alignedLength + padding > capacity - (int) (currentTail - currentHead)) {
+                return -1;
+            }
+        } while (!tail.compareAndSet(currentTail, currentTail + alignedLength + padding));
+
+        final int index = (int) currentTail & mask;
+        if (padding == 0) {
+            return index;
+        }
+
+        headers.lazySet(index >> ALIGNMENT_SHIFT, -padding);
+        return 0;
+    }
+
+    private void commit(final int index, final int length) {
+        headers.lazySet(index >> ALIGNMENT_SHIFT, length + 1);
+    }
+
+    private void abort(final int index, final int length) {
+        headers.lazySet(index >> ALIGNMENT_SHIFT, -align(length));
+    }
+
+    private static int align(final int length) {
+        return length == 0 ? ALIGNMENT : (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Space claimed in a {@link ByteRingBuffer} for a single record. A claim is a reusable flyweight, so
+     * every producer thread should own one.
+     */
+    public static class Claim implements ByteAppendable {
+        private ByteRingBuffer ringBuffer;
+        private int index;
+        private int length;
+        private int position;
+
+        @Override
+        public void appendByte(final byte toAppend) {
+            checkCapacity(1);
+            ringBuffer.buffer.put(index + position++, toAppend);
+        }
+
+        @Override
+        public void appendArea(final ByteArea area, final long startIndex, final long length) {
+            checkCapacity(length);
+            for (long i = 0; i < length; i++) {
+                ringBuffer.buffer.put(index + position++, area.getByte(startIndex + i));
+            }
+        }
+
+        public int length() {
+            return length;
+        }
+
+        public int position() {
+            return position;
+        }
+
+        /**
+         * Makes the record visible to the consumer. The whole claimed length is published regardless
+         * of how many bytes have been appended.
+         */
+        public void commit() {
+            ringBuffer.commit(index, length);
+            ringBuffer = null;
+        }
+
+        /**
+         * Gives the claimed space up, the consumer skips it.
+         */
+        public void abort() {
+            ringBuffer.abort(index, length);
+            ringBuffer = null;
+        }
+
+        void wrap(final ByteRingBuffer ringBuffer, final int index, final int length) {
+            this.ringBuffer = ringBuffer;
+            this.index = index;
+            this.length = length;
+            this.position = 0;
+        }
+
+        private void checkCapacity(final long toAppend) {
+            if (ringBuffer == null) {
+                throw new IllegalStateException("Nothing is claimed");
+            }
+
+            if (position + toAppend > length) {
+                throw new IndexOutOfBoundsException("Claimed " + length + " bytes, but " + (position + toAppend) +
+                        " are appended");
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import fir.needle.joint.colleclions.ObjectPool;
+import fir.needle.joint.colleclions.Pool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads a {@link ReadableByteChannel} into buffers borrowed from a {@link Pool} and exposes the data read
+ * as {@link ByteBufferArea}s, indexed from {@code 0} to {@link ByteBufferArea#length()}.
+ * <p>
+ * Every area returned by {@link #read()} should be given back with {@link #release(ByteBufferArea)} once
+ * it is processed. Use a thread-safe pool if the areas are released by other threads.
+ * <p>
+ * A non-blocking channel may have no data to read: {@link #read()} returns {@code null} then, while
+ * {@link #isEndOfStream()} stays {@code false}, and should be called again once the channel is readable
+ * rather than in a loop.
+ */
+public class ChannelByteAreaReader {
+    private final ReadableByteChannel channel;
+    private final Pool<ByteBufferArea> pool;
+
+    private boolean endOfStream;
+
+    public ChannelByteAreaReader(final ReadableByteChannel channel, final int bufferSize) {
+        this(channel, new ObjectPool<>(() -> new ByteBufferArea(ByteBuffer.allocateDirect(bufferSize))));
+    }
+
+    public ChannelByteAreaReader(final ReadableByteChannel channel, final Pool<ByteBufferArea> pool) {
+        this.channel = channel;
+        this.pool = pool;
+    }
+
+    /**
+     * Reads the next portion of data from the channel.
+     *
+     * @return an area with the data read or {@code null} if nothing has been read, either because the end of
+     * the stream has been reached or because a non-blocking channel has no data at the moment
+     * @throws IOException if the channel failed
+     */
+    public ByteBufferArea read() throws IOException {
+        final ByteBufferArea area = pool.borrow();
+        final ByteBuffer buffer = area.buffer();
+        buffer.clear();
+
+        final int read;
+        try {
+            read = channel.read(buffer);
+        } catch (final IOException e) {
+            pool.release(area);
+            throw e;
+        }
+
+        if (read <= 0) {
+            endOfStream = read < 0;
+            pool.release(area);
+            return null;
+        }
+
+        buffer.flip();
+        return area;
+    }
+
+    public void release(final ByteBufferArea area) {
+        pool.release(area);
+    }
+
+    public boolean isEndOfStream() {
+        return endOfStream;
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+/**
+ * Re-pointable {@link CharSequence} view over a region of a {@link CharArea} or of an ASCII (Latin-1)
+ * {@link ByteArea}. Nothing is copied, so the view reflects the current content of the area.
+ * <p>
+ * {@link #subSequence(int, int)} returns a new view over the same region of the area, while
+ * {@link #subSequence(int, int, CharAreaToCharSequence)} re-points a view given by the caller, so it does not
+ * allocate. Use {@link #toString()} to get a copy which outlives the content of the area.
+ */
+public class CharAreaToCharSequence implements CharSequence {
+    private CharArea charArea;
+    private ByteArea byteArea;
+    private long startIndex;
+    private int length;
+
+    public CharAreaToCharSequence() {
+
+    }
+
+    public CharAreaToCharSequence(final CharArea area, final long startIndex, final int length) {
+        wrap(area, startIndex, length);
+    }
+
+    public CharAreaToCharSequence wrap(final CharArea area, final long startIndex, final int length) {
+        this.charArea = area;
+        this.byteArea = null;
+        this.startIndex = startIndex;
+        this.length = length;
+        return this;
+    }
+
+    public CharAreaToCharSequence wrapBytes(final ByteArea area, final long startIndex, final int length) {
+        this.charArea = null;
+        this.byteArea = area;
+        this.startIndex = startIndex;
+        this.length = length;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of [0, " + length + ")");
+        }
+
+        return charArea != null ?
+                charArea.getChar(startIndex + index) :
+                (char) (byteArea.getByte(startIndex + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return subSequence(start, end, new CharAreaToCharSequence());
+    }
+
+    /**
+     * Points the view given to a region of this sequence.
+     *
+     * @param start  index of the first char, inclusive
+     * @param end    index of the last char, exclusive
+     * @param target view to be re-pointed
+     * @return the view given
+     */
+    public CharAreaToCharSequence subSequence(final int start, final int end, final CharAreaToCharSequence target) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of [0, " + length + ")");
+        }
+
+        return charArea != null ?
+                target.wrap(charArea, startIndex + start, end - start) :
+                target.wrapBytes(byteArea, startIndex + start, end - start);
+    }
+
+    public boolean contentEquals(final CharSequence other) {
+        if (other == null || other.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = charAt(i);
+        }
+
+        return new String(chars);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Frames records terminated by a single delimiter byte, e.g. lines terminated by {@code '\n'}.
+ * <p>
+ * The delimiter is searched a word at a time when the area is a {@link ByteBufferArea}.
+ */
+public class DelimiterFraming implements RecordFraming {
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private final byte delimiter;
+    private final long pattern;
+
+    public DelimiterFraming(final byte delimiter) {
+        this.delimiter = delimiter;
+        this.pattern = (delimiter & 0xFFL) * 0x0101010101010101L;
+    }
+
+    public static DelimiterFraming lines() {
+        return new DelimiterFraming((byte) '\n');
+    }
+
+    @Override
+    public int headerLength() {
+        return 0;
+    }
+
+    @Override
+    public int trailerLength() {
+        return 1;
+    }
+
+    @Override
+    public long frameLength(final ByteArea area, final long startIndex, final long length) {
+        final long index = indexOf(area, startIndex, startIndex + length);
+        return index < 0 ? -1 : index - startIndex + 1;
+    }
+
+    @Override
+    public long remainingLength(
+            final ByteArea carried,
+            final long carriedLength,
+            final ByteArea chunk,
+            final long startIndex,
+            final long length) {
+
+        return frameLength(chunk, startIndex, length);
+    }
+
+    private long indexOf(final ByteArea area, final long startIndex, final long endIndex) {
+        long index = startIndex;
+
+        if (area instanceof ByteBufferArea) {
+            final ByteBuffer buffer = ((ByteBufferArea) area).buffer();
+            final boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+
+            for (; index + Long.BYTES <= endIndex; index += Long.BYTES) {
+                final long word = buffer.getLong((int) index) ^ pattern;
+                final long matches = ~(((word & LOW_BITS) + LOW_BITS) | word | LOW_BITS);
+                if (matches != 0) {
+                    return index + ((bigEndian ?
+                            Long.numberOfLeadingZeros(matches) :
+                            Long.numberOfTrailingZeros(matches)) >>> 3);
+                }
+            }
+        }
+
+        for (; index < endIndex; index++) {
+            if (area.getByte(index) == delimiter) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+}
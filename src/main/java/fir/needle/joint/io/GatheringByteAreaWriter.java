@@ -0,0 +1,157 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+
+/**
+ * Collects a number of {@link ByteArea} regions and writes all of them to a {@link GatheringByteChannel}
+ * with a single {@link GatheringByteChannel#write(ByteBuffer[], int, int)} call.
+ * <p>
+ * Regions of a {@link ByteBufferArea} are passed to the channel as is, without copying. Regions of any
+ * other area are copied into the staging buffer which is allocated once, so steady state writes do not
+ * allocate.
+ * <p>
+ * The regions must not be changed until they are completely written. If the channel accepted only a part
+ * of the data (e.g. a non-blocking socket), {@link #hasRemaining()} returns {@code true} and
+ * {@link #writeTo(GatheringByteChannel)} should be called again later. As soon as all the regions are
+ * written, the writer is cleared and ready for the next batch.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class GatheringByteAreaWriter {
+    private final ByteBuffer[] regions;
+    private final ByteBuffer[] stagingRegions;
+    private final ByteBuffer staging;
+
+    private int regionCount;
+    private int firstPendingRegion;
+    private int stagingPosition;
+
+    public GatheringByteAreaWriter(final int maxRegions, final int stagingCapacity) {
+        this(maxRegions, ByteBuffer.allocateDirect(stagingCapacity));
+    }
+
+    public GatheringByteAreaWriter(final int maxRegions, final ByteBuffer staging) {
+        if (maxRegions <= 0) {
+            throw new IllegalArgumentException("Max regions should be > 0");
+        }
+
+        this.regions = new ByteBuffer[maxRegions];
+        this.stagingRegions = new ByteBuffer[maxRegions];
+        this.staging = staging;
+
+        for (int i = 0; i < maxRegions; i++) {
+            stagingRegions[i] = staging.duplicate();
+        }
+    }
+
+    public void add(final ByteArea area, final long startIndex, final long length) {
+        if (regionCount >= regions.length) {
+            throw new IllegalStateException("Too many regions, max is " + regions.length);
+        }
+
+        if (area instanceof ByteBufferArea && !isAdded(((ByteBufferArea) area).view())) {
+            final ByteBuffer view = ((ByteBufferArea) area).view();
+            view.clear();
+            view.limit((int) (startIndex + length));
+            view.position((int) startIndex);
+
+            regions[regionCount++] = view;
+            return;
+        }
+
+        regions[regionCount] = stage(area, startIndex, length, stagingRegions[regionCount]);
+        regionCount++;
+    }
+
+    /**
+     * Writes as much of the added regions as the channel accepts.
+     *
+     * @param channel to write to
+     * @return the number of bytes written, possibly zero
+     * @throws IOException if the channel failed
+     */
+    public long writeTo(final GatheringByteChannel channel) throws IOException {
+        final long written = channel.write(regions, firstPendingRegion, regionCount - firstPendingRegion);
+
+        while (firstPendingRegion < regionCount && !regions[firstPendingRegion].hasRemaining()) {
+            firstPendingRegion++;
+        }
+
+        if (firstPendingRegion == regionCount) {
+            clear();
+        }
+
+        return written;
+    }
+
+    public boolean hasRemaining() {
+        return firstPendingRegion < regionCount;
+    }
+
+    public int regionCount() {
+        return regionCount;
+    }
+
+    public void clear() {
+        for (int i = 0; i < regionCount; i++) {
+            regions[i] = null;
+        }
+
+        regionCount = 0;
+        firstPendingRegion = 0;
+        stagingPosition = 0;
+    }
+
+    private boolean isAdded(final ByteBuffer view) {
+        for (int i = 0; i < regionCount; i++) {
+            if (regions[i] == view) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private ByteBuffer stage(final ByteArea area, final long startIndex, final long length, final ByteBuffer region) {
+        if (length > staging.capacity() - stagingPosition) {
+            throw new IllegalStateException("Staging buffer overflow, " + length + " bytes requested but only " +
+                    (staging.capacity() - stagingPosition) + " available");
+        }
+
+        for (long i = 0; i < length; i++) {
+            staging.put(stagingPosition + (int) i, area.getByte(startIndex + i));
+        }
+
+        region.clear();
+        region.limit(stagingPosition + (int) length);
+        region.position(stagingPosition);
+        stagingPosition += (int) length;
+
+        return region;
+    }
+}
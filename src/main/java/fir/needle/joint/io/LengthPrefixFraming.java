@@ -0,0 +1,96 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+/**
+ * Frames records prefixed with their length as an unsigned integer of 1, 2 or 4 bytes.
+ */
+public class LengthPrefixFraming implements RecordFraming {
+    private final int prefixLength;
+    private final boolean bigEndian;
+
+    public LengthPrefixFraming(final int prefixLength, final boolean bigEndian) {
+        if (prefixLength != 1 && prefixLength != 2 && prefixLength != 4) {
+            throw new IllegalArgumentException("Prefix length should be 1, 2 or 4");
+        }
+
+        this.prefixLength = prefixLength;
+        this.bigEndian = bigEndian;
+    }
+
+    @Override
+    public int headerLength() {
+        return prefixLength;
+    }
+
+    @Override
+    public int trailerLength() {
+        return 0;
+    }
+
+    @Override
+    public long frameLength(final ByteArea area, final long startIndex, final long length) {
+        if (length < prefixLength) {
+            return -1;
+        }
+
+        long recordLength = 0;
+        for (int i = 0; i < prefixLength; i++) {
+            recordLength = accumulate(recordLength, i, area.getByte(startIndex + i));
+        }
+
+        final long frameLength = prefixLength + recordLength;
+        return frameLength <= length ? frameLength : -1;
+    }
+
+    @Override
+    public long remainingLength(
+            final ByteArea carried,
+            final long carriedLength,
+            final ByteArea chunk,
+            final long startIndex,
+            final long length) {
+
+        if (carriedLength + length < prefixLength) {
+            return -1;
+        }
+
+        long recordLength = 0;
+        for (int i = 0; i < prefixLength; i++) {
+            final byte value = i < carriedLength ?
+                    carried.getByte(i) :
+                    chunk.getByte(startIndex + i - carriedLength);
+            recordLength = accumulate(recordLength, i, value);
+        }
+
+        final long remainingLength = prefixLength + recordLength - carriedLength;
+        return remainingLength <= length ? remainingLength : -1;
+    }
+
+    private long accumulate(final long value, final int index, final byte next) {
+        return bigEndian ?
+                value << 8 | (next & 0xFFL) :
+                value | (next & 0xFFL) << (index << 3);
+    }
+}
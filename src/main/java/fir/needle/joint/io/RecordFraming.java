@@ -0,0 +1,57 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+/**
+ * Defines how records are delimited in a byte stream. A frame consists of a header, the record itself and
+ * a trailer, where the header and the trailer are stripped by {@link RecordSplitter}.
+ */
+public interface RecordFraming {
+
+    int headerLength();
+
+    int trailerLength();
+
+    /**
+     * @param area       area containing the stream
+     * @param startIndex index of the first byte of the frame
+     * @param length     number of bytes available in the area
+     * @return length of the frame including the header and the trailer or {@code -1} if the frame is not
+     * complete within the bytes available
+     */
+    long frameLength(ByteArea area, long startIndex, long length);
+
+    /**
+     * Continues a frame which has been started in a previous chunk of the stream.
+     *
+     * @param carried       area containing the beginning of the frame, starting at index {@code 0}
+     * @param carriedLength number of bytes carried
+     * @param chunk         area containing the next chunk of the stream
+     * @param startIndex    index of the first byte of the chunk
+     * @param length        number of bytes in the chunk
+     * @return how many bytes of the chunk complete the frame or {@code -1} if the whole chunk belongs to
+     * the frame and it is still not complete
+     */
+    long remainingLength(ByteArea carried, long carriedLength, ByteArea chunk, long startIndex, long length);
+}
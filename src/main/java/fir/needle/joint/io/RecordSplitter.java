@@ -0,0 +1,171 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Push-based splitter of a byte stream, which arrives in chunks of arbitrary size, into records framed
+ * according to a {@link RecordFraming}.
+ * <p>
+ * Records which are entirely within a chunk are passed to the handler as regions of the chunk itself,
+ * without copying. Only the tail of a chunk, which is the beginning of a record not completed yet, is copied
+ * and carried over to the next chunk. Memory usage is thus bounded by the max record length, so a stream
+ * of any size could be split in a single pass.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class RecordSplitter {
+    private static final int INITIAL_CARRY_CAPACITY = 1024;
+
+    private final RecordFraming framing;
+    private final ByteRecordHandler handler;
+    private final int maxFrameLength;
+    private final ByteBufferArea carried = new ByteBufferArea(ByteBuffer.allocate(INITIAL_CARRY_CAPACITY));
+
+    private int carriedLength;
+
+    public RecordSplitter(final RecordFraming framing, final ByteRecordHandler handler, final int maxFrameLength) {
+        this.framing = framing;
+        this.handler = handler;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    /**
+     * Passes all the records completed by the chunk to the handler and carries the incomplete tail over.
+     *
+     * @param chunk      area containing the next chunk of the stream
+     * @param startIndex index of the first byte of the chunk
+     * @param length     number of bytes in the chunk
+     */
+    public void onChunk(final ByteArea chunk, final long startIndex, final long length) {
+        final long endIndex = startIndex + length;
+        long index = startIndex;
+
+        if (carriedLength > 0) {
+            final long remainingLength = framing.remainingLength(carried, carriedLength, chunk, index, length);
+            if (remainingLength < 0) {
+                carry(chunk, index, length);
+                return;
+            }
+
+            carry(chunk, index, remainingLength);
+            index += remainingLength;
+
+            final int frameLength = carriedLength;
+            carriedLength = 0;
+            emit(carried, 0, frameLength);
+        }
+
+        while (index < endIndex) {
+            final long frameLength = framing.frameLength(chunk, index, endIndex - index);
+            if (frameLength < 0) {
+                break;
+            }
+
+            emit(chunk, index, frameLength);
+            index += frameLength;
+        }
+
+        if (index < endIndex) {
+            carry(chunk, index, endIndex - index);
+        }
+    }
+
+    /**
+     * Splits the data available through the reader, releasing every chunk once it is processed. A blocking
+     * channel is read up to the end of the stream, while reading a non-blocking channel stops as soon as it
+     * has no data, so this method should be called again once the channel is readable.
+     *
+     * @param reader to read the chunks
+     * @return {@code true} if the end of the stream has been reached
+     * @throws IOException if reading failed
+     */
+    public boolean split(final ChannelByteAreaReader reader) throws IOException {
+        while (!reader.isEndOfStream()) {
+            final ByteBufferArea chunk = reader.read();
+            if (chunk == null) {
+                break;
+            }
+
+            try {
+                onChunk(chunk, 0, chunk.length());
+            } finally {
+                reader.release(chunk);
+            }
+        }
+
+        return reader.isEndOfStream();
+    }
+
+    /**
+     * Passes the carried incomplete frame to the handler as is, e.g. the last line of a stream which is not
+     * terminated by a delimiter.
+     */
+    public void flush() {
+        if (carriedLength > 0) {
+            final int length = carriedLength;
+            carriedLength = 0;
+            handler.onRecord(carried, 0, length);
+        }
+    }
+
+    public void reset() {
+        carriedLength = 0;
+    }
+
+    /**
+     * @return number of bytes of an incomplete frame carried over to the next chunk
+     */
+    public int carriedLength() {
+        return carriedLength;
+    }
+
+    private void emit(final ByteArea area, final long frameStartIndex, final long frameLength) {
+        handler.onRecord(area, frameStartIndex + framing.headerLength(),
+                frameLength - framing.headerLength() - framing.trailerLength());
+    }
+
+    private void carry(final ByteArea chunk, final long startIndex, final long length) {
+        if (carriedLength + length > maxFrameLength) {
+            carriedLength = 0;
+            throw new IllegalStateException("Frame exceeds max length " + maxFrameLength);
+        }
+
+        ByteBuffer buffer = carried.buffer();
+        if (carriedLength + length > buffer.capacity()) {
+            final ByteBuffer extended = ByteBuffer.allocate((int) Math.min(maxFrameLength,
+                    Math.max(buffer.capacity() * 2L, carriedLength + length)));
+            buffer.clear().limit(carriedLength);
+            extended.put(buffer);
+            carried.wrap(extended);
+            buffer = extended;
+        }
+
+        for (long i = 0; i < length; i++) {
+            buffer.put(carriedLength++, chunk.getByte(startIndex + i));
+        }
+    }
+}
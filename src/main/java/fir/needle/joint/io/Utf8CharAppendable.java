@@ -0,0 +1,173 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+/**
+ * {@link CharAppendable} which encodes chars to UTF-8 and streams the bytes straight into a target
+ * {@link ByteAppendable}, without any intermediate {@code String} or {@code byte[]}.
+ * <p>
+ * A surrogate pair may be split between calls: the high surrogate is kept until the next char arrives.
+ * Unpaired surrogates are encoded as {@code '?'}, the same way {@code String.getBytes(UTF_8)} does, so
+ * {@link #flush()} should be called after the last char. Runs of ASCII chars given to
+ * {@link #appendArea(CharArea, long, long)} are passed to the target with a single
+ * {@link ByteAppendable#appendArea(ByteArea, long, long)} call.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class Utf8CharAppendable implements CharAppendable {
+    private static final byte REPLACEMENT = '?';
+    private static final char NO_HIGH_SURROGATE = 0;
+
+    private final CharToByteArea asciiRun = new CharToByteArea();
+
+    private ByteAppendable target;
+    private char highSurrogate = NO_HIGH_SURROGATE;
+
+    public Utf8CharAppendable() {
+
+    }
+
+    public Utf8CharAppendable(final ByteAppendable target) {
+        this.target = target;
+    }
+
+    public Utf8CharAppendable wrap(final ByteAppendable target) {
+        this.target = target;
+        this.highSurrogate = NO_HIGH_SURROGATE;
+        return this;
+    }
+
+    @Override
+    public void appendChar(final char toAppend) {
+        if (highSurrogate != NO_HIGH_SURROGATE) {
+            final char high = highSurrogate;
+            highSurrogate = NO_HIGH_SURROGATE;
+
+            if (Character.isLowSurrogate(toAppend)) {
+                appendCodePoint(Character.toCodePoint(high, toAppend));
+                return;
+            }
+
+            target.appendByte(REPLACEMENT);
+        }
+
+        if (toAppend < 0x80) {
+            target.appendByte((byte) toAppend);
+        } else if (toAppend < 0x800) {
+            target.appendByte((byte) (0xC0 | toAppend >> 6));
+            target.appendByte((byte) (0x80 | toAppend & 0x3F));
+        } else if (Character.isHighSurrogate(toAppend)) {
+            highSurrogate = toAppend;
+        } else if (Character.isLowSurrogate(toAppend)) {
+            target.appendByte(REPLACEMENT);
+        } else {
+            target.appendByte((byte) (0xE0 | toAppend >> 12));
+            target.appendByte((byte) (0x80 | toAppend >> 6 & 0x3F));
+            target.appendByte((byte) (0x80 | toAppend & 0x3F));
+        }
+    }
+
+    @Override
+    public void appendArea(final CharArea area, final long startIndex, final long length) {
+        final long end = startIndex + length;
+        long index = startIndex;
+
+        while (index < end) {
+            if (highSurrogate == NO_HIGH_SURROGATE) {
+                long runEnd = index;
+                while (runEnd < end && area.getChar(runEnd) < 0x80) {
+                    runEnd++;
+                }
+
+                if (runEnd > index) {
+                    target.appendArea(asciiRun.wrap(area), index, runEnd - index);
+                    index = runEnd;
+                    continue;
+                }
+            }
+
+            appendChar(area.getChar(index++));
+        }
+    }
+
+    /**
+     * Encodes a pending high surrogate which has not been followed by a low one.
+     */
+    public void flush() {
+        if (highSurrogate != NO_HIGH_SURROGATE) {
+            highSurrogate = NO_HIGH_SURROGATE;
+            target.appendByte(REPLACEMENT);
+        }
+    }
+
+    /**
+     * @param area       chars to be encoded
+     * @param startIndex index of the first char
+     * @param length     number of chars
+     * @return how many bytes the chars take in UTF-8
+     */
+    public static long encodedLength(final CharArea area, final long startIndex, final long length) {
+        final long end = startIndex + length;
+        long encodedLength = 0;
+
+        for (long i = startIndex; i < end; i++) {
+            final char c = area.getChar(i);
+            if (c < 0x80) {
+                encodedLength++;
+            } else if (c < 0x800) {
+                encodedLength += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(area.getChar(i + 1))) {
+                encodedLength += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                encodedLength++;
+            } else {
+                encodedLength += 3;
+            }
+        }
+
+        return encodedLength;
+    }
+
+    private void appendCodePoint(final int codePoint) {
+        target.appendByte((byte) (0xF0 | codePoint >> 18));
+        target.appendByte((byte) (0x80 | codePoint >> 12 & 0x3F));
+        target.appendByte((byte) (0x80 | codePoint >> 6 & 0x3F));
+        target.appendByte((byte) (0x80 | codePoint & 0x3F));
+    }
+
+    private static final class CharToByteArea implements ByteArea {
+        private CharArea area;
+
+        CharToByteArea wrap(final CharArea area) {
+            this.area = area;
+            return this;
+        }
+
+        @Override
+        public byte getByte(final long index) {
+            return (byte) area.getChar(index);
+        }
+    }
+}
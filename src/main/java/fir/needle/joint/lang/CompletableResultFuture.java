@@ -0,0 +1,333 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * {@link ListenableFuture} completed explicitly with {@link #complete(Result)}.
+ * <p>
+ * The state is changed with CAS only, there are no locks. Adding the first listener does not allocate,
+ * further listeners are chained in nodes. Listeners are called in no particular order. Threads blocked in
+ * {@link #sync()} wait according to the {@link WaitStrategy} of the future, which parks them by default.
+ * Parked threads are kept apart from the listeners, one node per blocking wait, and a thread which times out
+ * unlinks its node, so repeated waits with a timeout do not accumulate.
+ *
+ * @param <R> type of the result
+ */
+public class CompletableResultFuture<R extends Result> implements ListenableFuture<R> {
+    private static final Object DONE = new Object();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CompletableResultFuture, Object> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(CompletableResultFuture.class, Object.class, "state");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<CompletableResultFuture> COMPLETING =
+            AtomicIntegerFieldUpdater.newUpdater(CompletableResultFuture.class, "completing");
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CompletableResultFuture, WaitNode> WAITERS =
+            AtomicReferenceFieldUpdater.newUpdater(CompletableResultFuture.class, WaitNode.class, "waiters");
+
+    /**
+     * {@code null} if pending without listeners, a {@link ResultListener} or a {@link ListenerNode} if pending
+     * with listeners, {@link #DONE} if completed.
+     */
+    private volatile Object state;
+    private volatile int completing;
+    private volatile WaitNode waiters;
+    private R result;
+
+    private WaitStrategy waitStrategy;
+
+    public CompletableResultFuture() {
+        this(WaitStrategies.park());
+    }
+
+    public CompletableResultFuture(final WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    public static <R extends Result> CompletableResultFuture<R> completed(final R result) {
+        final CompletableResultFuture<R> future = new CompletableResultFuture<>();
+        future.complete(result);
+        return future;
+    }
+
+    /**
+     * Adapts a {@link CompletionStage} which completes either with a result or exceptionally.
+     *
+     * @param stage       to be adapted
+     * @param errorMapper builds a result from an exception the stage completed with
+     * @param <R>         type of the result
+     * @return future which is completed when the stage completes
+     */
+    public static <R extends Result> CompletableResultFuture<R> of(
+            final CompletionStage<? extends R> stage,
+            final Function<Throwable, R> errorMapper) {
+
+        final CompletableResultFuture<R> future = new CompletableResultFuture<>();
+        stage.whenComplete((result, error) -> future.complete(error == null ? result : errorMapper.apply(error)));
+        return future;
+    }
+
+    /**
+     * Completes the future and calls the listeners by the current thread.
+     *
+     * @param result to complete with
+     * @return {@code false} if the future has been completed already
+     */
+    public boolean complete(final R result) {
+        if (!COMPLETING.compareAndSet(this, 0, 1)) {
+            return false;
+        }
+
+        this.result = result;
+        final Object listeners = STATE.getAndSet(this, DONE);
+        unparkWaiters(WAITERS.getAndSet(this, null));
+        notifyListeners(listeners, result);
+        return true;
+    }
+
+    @Override
+    public boolean isDone() {
+        return state == DONE;
+    }
+
+    @Override
+    public R poll() {
+        return state == DONE ? result : null;
+    }
+
+    @Override
+    public R sync() throws InterruptedException {
+        waitStrategy.await(this, Long.MAX_VALUE);
+        return result;
+    }
+
+    @Override
+    public R sync(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return waitStrategy.await(this, unit.toNanos(timeout)) ? result : null;
+    }
+
+    public WaitStrategy waitStrategy() {
+        return waitStrategy;
+    }
+
+    public void waitStrategy(final WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void onComplete(final ResultListener<? super R> listener) {
+        while (true) {
+            final Object current = state;
+            if (current == DONE) {
+                listener.onComplete(result);
+                return;
+            }
+
+            final Object next = current == null ?
+                    listener :
+                    new ListenerNode((ResultListener<Result>) listener, current);
+
+            if (STATE.compareAndSet(this, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return {@link CompletableFuture} completed normally with the result of this future
+     */
+    public CompletableFuture<R> toCompletableFuture() {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        onComplete(future::complete);
+        return future;
+    }
+
+    /**
+     * Returns the future to the pending state, so it could be completed once again. Must be called only when
+     * nobody refers to the future anymore.
+     */
+    protected void reset() {
+        result = null;
+        state = null;
+        waiters = null;
+        completing = 0;
+    }
+
+    /**
+     * Parks the calling thread until the future is done or the timeout elapses, used by
+     * {@link WaitStrategies#park()}.
+     *
+     * @param timeoutNanos max time to wait, {@link Long#MAX_VALUE} to wait without a timeout
+     * @return {@code true} if the future is done
+     * @throws InterruptedException if the thread has been interrupted while waiting
+     */
+    boolean park(final long timeoutNanos) throws InterruptedException {
+        if (isDone()) {
+            return true;
+        }
+
+        final long deadline = timeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + timeoutNanos;
+        final WaitNode node = new WaitNode(Thread.currentThread());
+        WaitNode head;
+        do {
+            head = waiters;
+            node.next = head;
+        } while (!WAITERS.compareAndSet(this, head, node));
+
+        try {
+            // completion publishes DONE before it takes the waiters, so the node is either unparked or seen done
+            while (!isDone()) {
+                if (deadline == Long.MAX_VALUE) {
+                    LockSupport.park(this);
+                } else {
+                    final long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+
+                    LockSupport.parkNanos(this, remaining);
+                }
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+
+            return true;
+        } finally {
+            if (!isDone()) {
+                removeWaiter(node);
+            }
+        }
+    }
+
+    /**
+     * @return the number of threads parked in the future, for tests
+     */
+    int waiterCount() {
+        int count = 0;
+        for (WaitNode node = waiters; node != null; node = node.next) {
+            count++;
+        }
+
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + (state == DONE ? " done, result=" + result : " pending");
+    }
+
+    private void removeWaiter(final WaitNode node) {
+        node.thread = null;
+
+        retry:
+        while (true) {
+            WaitNode previous = null;
+            for (WaitNode current = waiters; current != null; current = current.next) {
+                if (current.thread != null) {
+                    previous = current;
+                } else if (previous != null) {
+                    previous.next = current.next;
+                    if (previous.thread == null) {
+                        continue retry;
+                    }
+                } else if (!WAITERS.compareAndSet(this, current, current.next)) {
+                    continue retry;
+                }
+            }
+
+            return;
+        }
+    }
+
+    private static void unparkWaiters(final WaitNode waiters) {
+        for (WaitNode node = waiters; node != null; node = node.next) {
+            final Thread thread = node.thread;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void notifyListeners(final Object listeners, final Result result) {
+        Throwable error = null;
+        Object current = listeners;
+
+        while (current != null) {
+            final ResultListener<Result> listener;
+            if (current instanceof ListenerNode) {
+                listener = ((ListenerNode) current).listener;
+                current = ((ListenerNode) current).next;
+            } else {
+                listener = (ResultListener<Result>) current;
+                current = null;
+            }
+
+            try {
+                listener.onComplete(result);
+            } catch (final Throwable t) {
+                if (error == null) {
+                    error = t;
+                }
+            }
+        }
+
+        if (error != null) {
+            LangUtil.rethrowUnchecked(error);
+        }
+    }
+
+    private static final class WaitNode {
+        private volatile Thread thread;
+        private volatile WaitNode next;
+
+        WaitNode(final Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    private static final class ListenerNode {
+        private final ResultListener<Result> listener;
+        private final Object next;
+
+        ListenerNode(final ResultListener<Result> listener, final Object next) {
+            this.listener = listener;
+            this.next = next;
+        }
+    }
+}
@@ -34,6 +34,15 @@ public abstract class ErrorableResult implements Result {
         this.error = error;
     }
 
+    /**
+     * Sets the error without allocation unless stack traces of {@link StacklessException}s are enabled.
+     *
+     * @param error preallocated error or {@code null} to clear the error
+     */
+    public void setError(final StacklessException error) {
+        this.error = error != null ? error.instance() : null;
+    }
+
     @Override
     public final Exception error() {
         return error;
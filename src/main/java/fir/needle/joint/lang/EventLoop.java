@@ -0,0 +1,303 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import fir.needle.joint.colleclions.ConcurrentObjectPool;
+import fir.needle.joint.colleclions.MpscArrayQueue;
+import fir.needle.joint.colleclions.Pool;
+import fir.needle.joint.logging.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Single-threaded executor which runs tasks submitted by any thread and timers of its {@link TimerWheel}.
+ * <p>
+ * Tasks are passed to the loop thread through a bounded {@link MpscArrayQueue}. A task given as an action and
+ * its argument is wrapped into a pooled task object, so {@link #execute(Consumer, Object)} does not allocate
+ * unless the lock of the task pool is contended.
+ * When there is nothing to do, the loop thread parks until a task is submitted or the next timer tick.
+ * <p>
+ * The loop is shut down with {@link #closeAsync()}: the tasks submitted before are still run, the timers
+ * which are not expired yet are dropped. A loop which has not been started yet starts its thread to run the
+ * tasks submitted before it is closed.
+ * <p>
+ * A task or a timer handler which throws is logged and does not stop the loop.
+ */
+public class EventLoop implements Executor, Closeable {
+    private static final int NOT_STARTED = 0;
+    private static final int RUNNING = 1;
+    private static final int SHUTTING_DOWN = 2;
+    private static final int TERMINATED = 3;
+
+    private static final int TASK_BATCH_SIZE = 256;
+
+    private final ThreadFactory threadFactory;
+    private final Logger logger;
+    private final MpscArrayQueue<Runnable> tasks;
+    private final TimerWheel timerWheel;
+    private final Pool<PooledTask<?>> taskPool = new ConcurrentObjectPool<>(() -> new PooledTask<>(this));
+    private final CompletableResultFuture<VoidResult> terminationFuture = new CompletableResultFuture<>();
+    private final AtomicInteger state = new AtomicInteger(NOT_STARTED);
+    private final AtomicInteger pendingOffers = new AtomicInteger();
+
+    private volatile Thread thread;
+    private volatile boolean parked;
+
+    public EventLoop(final ThreadFactory threadFactory, final int queueCapacity, final Logger logger) {
+        this(threadFactory, queueCapacity, new TimerWheel(1, TimeUnit.MILLISECONDS, 512), logger);
+    }
+
+    public EventLoop(
+            final ThreadFactory threadFactory,
+            final int queueCapacity,
+            final TimerWheel timerWheel,
+            final Logger logger) {
+
+        this.threadFactory = threadFactory;
+        this.tasks = new MpscArrayQueue<>(queueCapacity);
+        this.timerWheel = timerWheel;
+        this.logger = logger;
+    }
+
+    public void start() {
+        if (!state.compareAndSet(NOT_STARTED, RUNNING)) {
+            throw new IllegalStateException("Event loop has been started already");
+        }
+
+        startThread();
+    }
+
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Submits the task to be run by the loop thread.
+     *
+     * @param task to be run
+     * @throws RejectedExecutionException if the queue is full or the loop is shut down
+     */
+    @Override
+    public void execute(final Runnable task) {
+        if (!offer(task)) {
+            throw new RejectedExecutionException("Event loop is " + (state.get() > RUNNING ? "shut down" : "full"));
+        }
+    }
+
+    /**
+     * Submits the action to be called with the argument by the loop thread, through a pooled task.
+     *
+     * @param action   to be called
+     * @param argument to be passed to the action
+     * @param <T>      type of the argument
+     * @throws RejectedExecutionException if the queue is full or the loop is shut down
+     */
+    public <T> void execute(final Consumer<? super T> action, final T argument) {
+        @SuppressWarnings("unchecked")
+        final PooledTask<T> task = (PooledTask<T>) taskPool.borrow();
+        task.set(action, argument);
+
+        if (!offer(task)) {
+            task.clear();
+            taskPool.release(task);
+            throw new RejectedExecutionException("Event loop is " + (state.get() > RUNNING ? "shut down" : "full"));
+        }
+    }
+
+    /**
+     * @param task to be run
+     * @return {@code false} if the queue is full or the loop is shut down
+     */
+    public boolean offer(final Runnable task) {
+        // the loop waits for pending offers before its final drain, so an accepted task is never left behind
+        pendingOffers.incrementAndGet();
+        try {
+            if (state.get() > RUNNING || !tasks.offer(task)) {
+                return false;
+            }
+        } finally {
+            pendingOffers.decrementAndGet();
+        }
+
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+
+        return true;
+    }
+
+    /**
+     * Schedules a timer, must be called by the loop thread.
+     *
+     * @param delay   delay of the timer
+     * @param unit    unit of the delay
+     * @param handler to be called by the loop thread
+     * @return id of the timer to cancel it with {@link #cancelTimer(long)}
+     */
+    public long schedule(final long delay, final TimeUnit unit, final TimeoutHandler handler) {
+        checkInEventLoop();
+        return timerWheel.scheduleAfter(delay, unit, handler);
+    }
+
+    public boolean cancelTimer(final long timerId) {
+        checkInEventLoop();
+        return timerWheel.cancel(timerId);
+    }
+
+    /**
+     * @return the timer wheel of the loop, which may be used by the loop thread only
+     */
+    public TimerWheel timerWheel() {
+        checkInEventLoop();
+        return timerWheel;
+    }
+
+    @Override
+    public ListenableFuture<VoidResult> closeAsync() {
+        if (state.compareAndSet(NOT_STARTED, SHUTTING_DOWN)) {
+            startThread();
+        } else if (state.compareAndSet(RUNNING, SHUTTING_DOWN)) {
+            LockSupport.unpark(thread);
+        }
+
+        return terminationFuture;
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeAsync().sync();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void startThread() {
+        final Thread loopThread = threadFactory.newThread(this::run);
+        thread = loopThread;
+        loopThread.start();
+    }
+
+    private void run() {
+        try {
+            while (state.get() == RUNNING) {
+                final int done = tasks.drain(this::runTask, TASK_BATCH_SIZE) + pollTimers();
+                if (done == 0) {
+                    idle();
+                }
+            }
+
+            while (pendingOffers.get() > 0) {
+                Thread.yield();
+            }
+
+            while (tasks.drain(this::runTask, TASK_BATCH_SIZE) > 0) {
+                continue;
+            }
+        } finally {
+            state.set(TERMINATED);
+            terminationFuture.complete(VoidResult.NO_ERROR_RESULT);
+        }
+    }
+
+    private void idle() {
+        parked = true;
+        try {
+            if (!tasks.isEmpty() || state.get() != RUNNING) {
+                return;
+            }
+
+            if (!timerWheel.isEmpty()) {
+                LockSupport.parkNanos(this, timerWheel.nextTickDeadline() - System.nanoTime());
+            } else {
+                LockSupport.park(this);
+            }
+        } finally {
+            parked = false;
+        }
+    }
+
+    private int pollTimers() {
+        int expired = 0;
+        while (true) {
+            try {
+                return expired + timerWheel.poll(System.nanoTime());
+            } catch (final Throwable t) {
+                // the wheel keeps the timers which are not expired yet, so polling again resumes after the failed one
+                expired++;
+                logger.error("Event loop timer failed", t);
+            }
+        }
+    }
+
+    private void runTask(final Runnable task) {
+        try {
+            task.run();
+        } catch (final Throwable t) {
+            logger.error("Event loop task failed", t);
+        }
+    }
+
+    private void checkInEventLoop() {
+        if (!inEventLoop()) {
+            throw new IllegalStateException("Must be called by the event loop thread");
+        }
+    }
+
+    private static final class PooledTask<T> implements Runnable {
+        private final EventLoop eventLoop;
+        private Consumer<? super T> action;
+        private T argument;
+
+        PooledTask(final EventLoop eventLoop) {
+            this.eventLoop = eventLoop;
+        }
+
+        void set(final Consumer<? super T> action, final T argument) {
+            this.action = action;
+            this.argument = argument;
+        }
+
+        void clear() {
+            action = null;
+            argument = null;
+        }
+
+        @Override
+        public void run() {
+            final Consumer<? super T> currentAction = action;
+            final T currentArgument = argument;
+            clear();
+            eventLoop.taskPool.release(this);
+
+            currentAction.accept(currentArgument);
+        }
+    }
+}
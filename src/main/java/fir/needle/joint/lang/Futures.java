@@ -0,0 +1,200 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Combinators which aggregate several futures into one.
+ * <p>
+ * A composite future is a single object which listens to all the given futures and counts them down with
+ * one atomic counter, so it does not allocate any intermediate collections; only
+ * {@link #closeAll(Closeable...)} keeps the close futures in an array. The given futures must be
+ * {@link ListenableFuture}s, except for the close futures; they are all checked before any of them gets a
+ * listener.
+ */
+public final class Futures {
+    private Futures() {
+
+    }
+
+    /**
+     * @param futures to wait for
+     * @return future which is completed when all the futures complete, with the first erroneous result if there
+     * is any and with {@link VoidResult#NO_ERROR_RESULT} otherwise
+     */
+    @SafeVarargs
+    public static ListenableFuture<Result> allOf(final Future<? extends Result>... futures) {
+        for (final Future<? extends Result> future : futures) {
+            CompositeFuture.checkListenable(future);
+        }
+
+        final CompositeFuture composite = new CompositeFuture(CompositeFuture.ALL, futures.length);
+        for (final Future<? extends Result> future : futures) {
+            composite.listenTo(future);
+        }
+
+        return composite;
+    }
+
+    /**
+     * @param futures to wait for
+     * @return future which is completed with the result of the first completed future
+     */
+    @SafeVarargs
+    public static ListenableFuture<Result> anyOf(final Future<? extends Result>... futures) {
+        if (futures.length == 0) {
+            throw new IllegalArgumentException("At least one future should be given");
+        }
+
+        for (final Future<? extends Result> future : futures) {
+            CompositeFuture.checkListenable(future);
+        }
+
+        final CompositeFuture composite = new CompositeFuture(CompositeFuture.ANY, futures.length);
+        for (final Future<? extends Result> future : futures) {
+            composite.listenTo(future);
+        }
+
+        return composite;
+    }
+
+    /**
+     * @param futures to wait for
+     * @return future which is completed with the first erroneous result as soon as it is known, or with
+     * {@link VoidResult#NO_ERROR_RESULT} when all the futures complete without errors
+     */
+    @SafeVarargs
+    public static ListenableFuture<Result> firstError(final Future<? extends Result>... futures) {
+        for (final Future<? extends Result> future : futures) {
+            CompositeFuture.checkListenable(future);
+        }
+
+        final CompositeFuture composite = new CompositeFuture(CompositeFuture.FIRST_ERROR, futures.length);
+        for (final Future<? extends Result> future : futures) {
+            composite.listenTo(future);
+        }
+
+        return composite;
+    }
+
+    /**
+     * Starts closing all the closeables at once.
+     * <p>
+     * Close futures which are not {@link ListenableFuture}s are waited for by the calling thread once all the
+     * closeables have started closing. If the thread is interrupted meanwhile, they count as failed with the
+     * {@link InterruptedException} and the interrupt flag is restored.
+     *
+     * @param closeables to be closed
+     * @return future which is completed when all the closeables are closed, with the first erroneous result if
+     * there is any and with {@link VoidResult#NO_ERROR_RESULT} otherwise
+     */
+    public static ListenableFuture<Result> closeAll(final Closeable... closeables) {
+        final CompositeFuture composite = new CompositeFuture(CompositeFuture.ALL, closeables.length);
+        final Future<?>[] closing = new Future<?>[closeables.length];
+
+        for (int i = 0; i < closeables.length; i++) {
+            closing[i] = closeables[i].closeAsync();
+            if (closing[i] instanceof ListenableFuture) {
+                composite.listenTo(closing[i]);
+            }
+        }
+
+        for (final Future<?> future : closing) {
+            if (!(future instanceof ListenableFuture)) {
+                composite.onComplete(syncInterruptibly(future));
+            }
+        }
+
+        return composite;
+    }
+
+    private static Result syncInterruptibly(final Future<?> future) {
+        try {
+            return future.sync();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            final VoidResult interrupted = new VoidResult();
+            interrupted.setError(e);
+            return interrupted;
+        }
+    }
+
+    private static final class CompositeFuture extends CompletableResultFuture<Result>
+            implements ResultListener<Result> {
+
+        private static final int ALL = 0;
+        private static final int ANY = 1;
+        private static final int FIRST_ERROR = 2;
+
+        private static final AtomicIntegerFieldUpdater<CompositeFuture> REMAINING =
+                AtomicIntegerFieldUpdater.newUpdater(CompositeFuture.class, "remaining");
+
+        private static final AtomicReferenceFieldUpdater<CompositeFuture, Result> ERROR_RESULT =
+                AtomicReferenceFieldUpdater.newUpdater(CompositeFuture.class, Result.class, "errorResult");
+
+        private final int mode;
+        private volatile int remaining;
+        private volatile Result errorResult;
+
+        CompositeFuture(final int mode, final int count) {
+            this.mode = mode;
+            this.remaining = count;
+            if (count == 0) {
+                complete(VoidResult.NO_ERROR_RESULT);
+            }
+        }
+
+        static void checkListenable(final Future<? extends Result> future) {
+            if (!(future instanceof ListenableFuture)) {
+                throw new IllegalArgumentException(future.getClass().getName() + " is not a ListenableFuture");
+            }
+        }
+
+        void listenTo(final Future<? extends Result> future) {
+            ((ListenableFuture<? extends Result>) future).onComplete(this);
+        }
+
+        @Override
+        public void onComplete(final Result result) {
+            final boolean erroneous = result != null && result.error() != null;
+
+            if (mode == ANY || mode == FIRST_ERROR && erroneous) {
+                complete(result);
+                return;
+            }
+
+            if (erroneous) {
+                ERROR_RESULT.compareAndSet(this, null, result);
+            }
+
+            if (REMAINING.decrementAndGet(this) == 0) {
+                final Result error = errorResult;
+                complete(error != null ? error : VoidResult.NO_ERROR_RESULT);
+            }
+        }
+    }
+}
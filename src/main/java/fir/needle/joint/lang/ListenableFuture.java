@@ -0,0 +1,60 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Future} which could be polled and notifies listeners on completion, so there is no need to block
+ * a thread per outstanding operation.
+ *
+ * @param <R> type of the result
+ */
+public interface ListenableFuture<R extends Result> extends Future<R> {
+
+    boolean isDone();
+
+    /**
+     * @return the result or {@code null} if the future is not done yet
+     */
+    R poll();
+
+    /**
+     * Waits for the result at most the time given.
+     *
+     * @param timeout max time to wait
+     * @param unit    unit of the timeout
+     * @return the result or {@code null} if the future is still not done when the timeout elapses
+     * @throws InterruptedException if the thread has been interrupted while waiting
+     */
+    R sync(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Adds a listener to be called with the result. If the future is done already, the listener is called
+     * immediately by the calling thread, otherwise it is called by the thread which completes the future.
+     *
+     * @param listener to be called once the future is done
+     */
+    void onComplete(ResultListener<? super R> listener);
+}
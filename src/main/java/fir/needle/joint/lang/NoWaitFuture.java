@@ -23,11 +23,33 @@
  */
 package fir.needle.joint.lang;
 
-public class NoWaitFuture implements Future<VoidResult> {
+import java.util.concurrent.TimeUnit;
+
+public class NoWaitFuture implements ListenableFuture<VoidResult> {
     public static final NoWaitFuture INSTANCE = new NoWaitFuture();
 
     @Override
     public VoidResult sync() {
         return VoidResult.NO_ERROR_RESULT;
     }
+
+    @Override
+    public boolean isDone() {
+        return true;
+    }
+
+    @Override
+    public VoidResult poll() {
+        return VoidResult.NO_ERROR_RESULT;
+    }
+
+    @Override
+    public VoidResult sync(final long timeout, final TimeUnit unit) {
+        return VoidResult.NO_ERROR_RESULT;
+    }
+
+    @Override
+    public void onComplete(final ResultListener<? super VoidResult> listener) {
+        listener.onComplete(VoidResult.NO_ERROR_RESULT);
+    }
 }
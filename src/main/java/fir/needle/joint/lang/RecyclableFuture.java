@@ -0,0 +1,167 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link CompletableResultFuture} paired with a preallocated result, which is returned to its pool once
+ * the result has been consumed. Completing such a future does not allocate, neither do borrowing and recycling
+ * it unless the pool is contended: the pool is guarded by a lock, which allocates nodes to queue the waiting
+ * threads.
+ * <p>
+ * Every recycling increments the generation of the future. A party which keeps a reference to the future
+ * should remember the {@link #generation()} when it borrows the future and access the future with the
+ * generation-checking methods, including {@link #sync(long)} and {@link #onComplete(long, ResultListener)},
+ * so a stale reference to a future which has been recycled and reused for another operation is detected
+ * rather than silently returning a foreign result.
+ *
+ * @param <R> type of the result
+ */
+public class RecyclableFuture<R extends Result> extends CompletableResultFuture<R> {
+    private final R result;
+    private final Consumer<? super R> resultCleaner;
+    private final RecyclableFuturePool<R> pool;
+
+    private volatile long generation;
+
+    RecyclableFuture(
+            final R result,
+            final Consumer<? super R> resultCleaner,
+            final RecyclableFuturePool<R> pool,
+            final WaitStrategy waitStrategy) {
+
+        super(waitStrategy);
+        this.result = result;
+        this.resultCleaner = resultCleaner;
+        this.pool = pool;
+    }
+
+    /**
+     * @return the preallocated result to be filled in before {@link #complete()}
+     */
+    public R result() {
+        return result;
+    }
+
+    /**
+     * Completes the future with the preallocated result.
+     *
+     * @return {@code false} if the future has been completed already
+     */
+    public boolean complete() {
+        return complete(result);
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public boolean isValid(final long expectedGeneration) {
+        return generation == expectedGeneration;
+    }
+
+    public boolean isDone(final long expectedGeneration) {
+        final boolean done = isDone();
+        checkGeneration(expectedGeneration);
+        return done;
+    }
+
+    public R poll(final long expectedGeneration) {
+        final R polled = poll();
+        checkGeneration(expectedGeneration);
+        return polled;
+    }
+
+    /**
+     * Waits for the result of the generation given.
+     *
+     * @param expectedGeneration generation remembered when the future was borrowed
+     * @return the result
+     * @throws InterruptedException  if the thread has been interrupted while waiting
+     * @throws IllegalStateException if the future has been recycled before or while waiting
+     */
+    public R sync(final long expectedGeneration) throws InterruptedException {
+        checkGeneration(expectedGeneration);
+        final R synced = sync();
+        checkGeneration(expectedGeneration);
+        return synced;
+    }
+
+    /**
+     * Waits for the result of the generation given at most the time given.
+     *
+     * @param expectedGeneration generation remembered when the future was borrowed
+     * @param timeout            max time to wait
+     * @param unit               unit of the timeout
+     * @return the result or {@code null} if the future is still not done when the timeout elapses
+     * @throws InterruptedException  if the thread has been interrupted while waiting
+     * @throws IllegalStateException if the future has been recycled before or while waiting
+     */
+    public R sync(final long expectedGeneration, final long timeout, final TimeUnit unit)
+            throws InterruptedException {
+
+        checkGeneration(expectedGeneration);
+        final R synced = sync(timeout, unit);
+        checkGeneration(expectedGeneration);
+        return synced;
+    }
+
+    /**
+     * Adds a listener to the generation given. A pending future can't be recycled, so the listener added
+     * to the current generation is called with the result of that generation.
+     *
+     * @param expectedGeneration generation remembered when the future was borrowed
+     * @param listener           to be called once the future is done
+     * @throws IllegalStateException if the future has been recycled
+     */
+    public void onComplete(final long expectedGeneration, final ResultListener<? super R> listener) {
+        checkGeneration(expectedGeneration);
+        onComplete(listener);
+        checkGeneration(expectedGeneration);
+    }
+
+    /**
+     * Cleans the result and returns the future to its pool. The future must be done.
+     */
+    public void recycle() {
+        if (!isDone()) {
+            throw new IllegalStateException("Pending future can't be recycled");
+        }
+
+        generation++;
+        resultCleaner.accept(result);
+        reset();
+        pool.release(this);
+    }
+
+    private void checkGeneration(final long expectedGeneration) {
+        final long actualGeneration = generation;
+        if (actualGeneration != expectedGeneration) {
+            throw new IllegalStateException("Stale future of generation " + expectedGeneration +
+                    ", current generation is " + actualGeneration);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import fir.needle.joint.colleclions.ConcurrentObjectPool;
+import fir.needle.joint.colleclions.ObjectPool;
+import fir.needle.joint.colleclions.Pool;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pool of {@link RecyclableFuture}s, each paired with its own result. Futures are borrowed with
+ * {@link #borrow()} and returned with {@link RecyclableFuture#recycle()}. The pool is thread-safe, so
+ * futures could be recycled by any thread.
+ *
+ * @param <R> type of the results
+ */
+public class RecyclableFuturePool<R extends Result> {
+    private final Pool<RecyclableFuture<R>> pool;
+
+    /**
+     * @param resultFactory creates the results paired with the futures
+     * @param resultCleaner prepares a result to be reused, e.g. clears its error
+     */
+    public RecyclableFuturePool(final Supplier<R> resultFactory, final Consumer<? super R> resultCleaner) {
+        this(0, resultFactory, resultCleaner);
+    }
+
+    /**
+     * @param initialAllocSize how many futures should be prepared initially
+     * @param resultFactory    creates the results paired with the futures
+     * @param resultCleaner    prepares a result to be reused, e.g. clears its error
+     */
+    public RecyclableFuturePool(
+            final int initialAllocSize,
+            final Supplier<R> resultFactory,
+            final Consumer<? super R> resultCleaner) {
+
+        this(initialAllocSize, resultFactory, resultCleaner, WaitStrategies.park());
+    }
+
+    /**
+     * @param initialAllocSize how many futures should be prepared initially
+     * @param resultFactory    creates the results paired with the futures
+     * @param resultCleaner    prepares a result to be reused, e.g. clears its error
+     * @param waitStrategy     used by the futures to wait in {@code sync}
+     */
+    public RecyclableFuturePool(
+            final int initialAllocSize,
+            final Supplier<R> resultFactory,
+            final Consumer<? super R> resultCleaner,
+            final WaitStrategy waitStrategy) {
+
+        this.pool = new ConcurrentObjectPool<>(new ObjectPool<>(initialAllocSize,
+                () -> new RecyclableFuture<>(resultFactory.get(), resultCleaner, this, waitStrategy)));
+    }
+
+    public static RecyclableFuturePool<VoidResult> voidResults() {
+        return new RecyclableFuturePool<>(VoidResult::new, result -> result.setError(null));
+    }
+
+    public RecyclableFuture<R> borrow() {
+        return pool.borrow();
+    }
+
+    public int getAllocatedSize() {
+        return pool.getAllocatedSize();
+    }
+
+    public int getUsedSize() {
+        return pool.getUsedSize();
+    }
+
+    void release(final RecyclableFuture<R> future) {
+        pool.release(future);
+    }
+}
@@ -24,7 +24,23 @@
 package fir.needle.joint.lang;
 
 public interface Result {
+    int NO_ERROR_CODE = 0;
+    int UNKNOWN_ERROR_CODE = -1;
 
     Exception error();
 
+    /**
+     * @return {@link #NO_ERROR_CODE} if there is no error, the code of a {@link StacklessException} error or
+     * {@link #UNKNOWN_ERROR_CODE} for any other error
+     */
+    default int errorCode() {
+        final Exception error = error();
+
+        if (error == null) {
+            return NO_ERROR_CODE;
+        }
+
+        return error instanceof StacklessException ? ((StacklessException) error).errorCode() : UNKNOWN_ERROR_CODE;
+    }
+
 }
\ No newline at end of file
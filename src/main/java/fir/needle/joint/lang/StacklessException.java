@@ -0,0 +1,84 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+/**
+ * Exception with an error code which does not fill in its stack trace, so preallocated instances may be used to
+ * report failures on hot paths without allocation.
+ * <p>
+ * Full stack traces are enabled for debugging by the {@value #STACK_TRACES_PROPERTY} system property. In that mode
+ * {@link #instance()} creates a new exception with the stack trace of the caller instead of returning the
+ * preallocated one.
+ */
+public class StacklessException extends Exception {
+    public static final String STACK_TRACES_PROPERTY = "fir.needle.joint.stackTraces";
+
+    public static final int TIMEOUT_CODE = 1;
+    public static final int CANCELLED_CODE = 2;
+    public static final int CLOSED_CODE = 3;
+    public static final int REJECTED_CODE = 4;
+    public static final int OVERFLOW_CODE = 5;
+
+    private static final boolean STACK_TRACES = Boolean.getBoolean(STACK_TRACES_PROPERTY);
+
+    public static final StacklessException TIMEOUT = new StacklessException(TIMEOUT_CODE, "Timed out");
+    public static final StacklessException CANCELLED = new StacklessException(CANCELLED_CODE, "Cancelled");
+    public static final StacklessException CLOSED = new StacklessException(CLOSED_CODE, "Closed");
+    public static final StacklessException REJECTED = new StacklessException(REJECTED_CODE, "Rejected");
+    public static final StacklessException OVERFLOW = new StacklessException(OVERFLOW_CODE, "Overflow");
+
+    private static final long serialVersionUID = 1L;
+
+    private final int errorCode;
+
+    /**
+     * @param errorCode positive code of the error
+     * @param message   message of the error
+     */
+    public StacklessException(final int errorCode, final String message) {
+        super(message, null, false, STACK_TRACES);
+
+        if (errorCode <= 0) {
+            throw new IllegalArgumentException("Error code should be > 0");
+        }
+
+        this.errorCode = errorCode;
+    }
+
+    public static boolean stackTracesEnabled() {
+        return STACK_TRACES;
+    }
+
+    public int errorCode() {
+        return errorCode;
+    }
+
+    /**
+     * @return this exception, or a new exception with the same code and message and the stack trace of the
+     * caller if stack traces are enabled
+     */
+    public StacklessException instance() {
+        return STACK_TRACES ? new StacklessException(errorCode, getMessage()) : this;
+    }
+}
@@ -0,0 +1,375 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import fir.needle.joint.colleclions.ObjectPool;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timer wheel with O(1) scheduling and cancellation. Timers are kept in doubly linked lists, one per
+ * tick of the wheel, and timers which are due later than one turn of the wheel wait for the required number
+ * of turns in their lists.
+ * <p>
+ * A timer is identified by a {@code long} id which encodes the timer entry and its generation. Entries are
+ * pooled and reused, so steady state scheduling does not allocate, while an id of a timer which has expired
+ * or has been cancelled never matches the reused entry.
+ * <p>
+ * The wheel does not have its own thread: due timers are expired by {@link #poll(long)}. This class is not
+ * thread-safe, it is intended to be driven by a single thread such as {@link EventLoop}.
+ */
+public class TimerWheel {
+    public static final long NULL_TIMER = -1;
+
+    private static final int EXPIRING = -1;
+    private static final int FREE = -2;
+    private static final int FIRING = -3;
+
+    private final long tickNanos;
+    private final long startTimeNanos;
+    private final int mask;
+    private final Entry[] buckets;
+    private final ObjectPool<Entry> pool = new ObjectPool<>(this::newEntry);
+
+    private Entry[] entries = new Entry[16];
+    private int entryCount;
+    private long currentTick;
+    private boolean polling;
+    private int size;
+
+    public TimerWheel(final long tickDuration, final TimeUnit unit, final int ticksPerWheel) {
+        this(tickDuration, unit, ticksPerWheel, System.nanoTime());
+    }
+
+    public TimerWheel(
+            final long tickDuration,
+            final TimeUnit unit,
+            final int ticksPerWheel,
+            final long startTimeNanos) {
+
+        if (Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("Ticks per wheel should be a power of two");
+        }
+
+        this.tickNanos = unit.toNanos(tickDuration);
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Tick duration should be > 0");
+        }
+
+        this.startTimeNanos = startTimeNanos;
+        this.mask = ticksPerWheel - 1;
+        this.buckets = new Entry[ticksPerWheel];
+    }
+
+    public long scheduleAfter(final long delay, final TimeUnit unit, final TimeoutHandler handler) {
+        return schedule(System.nanoTime() + unit.toNanos(delay), handler);
+    }
+
+    /**
+     * @param deadlineNanos the {@link System#nanoTime()} when the handler should be called
+     * @param handler       to be called
+     * @return id of the timer
+     */
+    public long schedule(final long deadlineNanos, final TimeoutHandler handler) {
+        final Entry entry = add(deadlineNanos);
+        entry.handler = handler;
+        return entry.timerId();
+    }
+
+    /**
+     * Schedules {@link Cancelable#cancel()} to be called at the deadline.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} when the cancelable should be cancelled
+     * @param cancelable    to be cancelled
+     * @return id of the timer
+     */
+    public long scheduleCancel(final long deadlineNanos, final Cancelable cancelable) {
+        final Entry entry = add(deadlineNanos);
+        entry.cancelable = cancelable;
+        return entry.timerId();
+    }
+
+    /**
+     * Schedules the future to be completed with the result given at the deadline, unless it is done by then.
+     *
+     * @param deadlineNanos the {@link System#nanoTime()} when the future times out
+     * @param future        to be completed
+     * @param timeoutResult to complete the future with
+     * @param <R>           type of the result
+     * @return id of the timer
+     */
+    public <R extends Result> long scheduleTimeout(
+            final long deadlineNanos,
+            final CompletableResultFuture<R> future,
+            final R timeoutResult) {
+
+        final Entry entry = add(deadlineNanos);
+        entry.setFuture(future, timeoutResult);
+        return entry.timerId();
+    }
+
+    /**
+     * @param timerId id of the timer to be cancelled
+     * @return {@code false} if the timer has expired, is firing or has been cancelled already
+     */
+    public boolean cancel(final long timerId) {
+        final int index = (int) (timerId >>> 32);
+        if (timerId == NULL_TIMER || index < 0 || index >= entryCount) {
+            return false;
+        }
+
+        final Entry entry = entries[index];
+        if (entry.generation != (int) timerId || entry.bucket == FREE || entry.bucket == FIRING ||
+                entry.isCancelled()) {
+            return false;
+        }
+
+        size--;
+        if (entry.bucket == EXPIRING) {
+            entry.clear();
+        } else {
+            unlink(entry);
+            release(entry);
+        }
+
+        return true;
+    }
+
+    /**
+     * Expires all the timers which are due by the time given, calling their handlers.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return the number of timers expired
+     */
+    public int poll(final long nowNanos) {
+        polling = true;
+        try {
+            return expireUntil((nowNanos - startTimeNanos) / tickNanos);
+        } finally {
+            polling = false;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if no timer is scheduled, checked by scanning the buckets of the wheel
+     */
+    public boolean isEmpty() {
+        for (final Entry bucket : buckets) {
+            if (bucket != null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public long tickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the next tick starts and more timers may become due
+     */
+    public long nextTickDeadline() {
+        return startTimeNanos + currentTick * tickNanos;
+    }
+
+    private int expireUntil(final long nowTick) {
+        int expired = 0;
+
+        for (; currentTick <= nowTick; currentTick++) {
+            Entry expiring = collectExpiring((int) currentTick & mask);
+
+            while (expiring != null) {
+                final Entry entry = expiring;
+                expiring = entry.next;
+
+                if (!entry.isCancelled()) {
+                    size--;
+                    expired++;
+                    entry.bucket = FIRING;
+                    try {
+                        entry.expire();
+                    } catch (final Throwable t) {
+                        releaseAll(entry, expiring);
+                        throw t;
+                    }
+                }
+
+                release(entry);
+            }
+        }
+
+        return expired;
+    }
+
+    private Entry add(final long deadlineNanos) {
+        // the bucket of the current tick has been collected already while it is being expired
+        final long earliestTick = polling ? currentTick + 1 : currentTick;
+        final long deadlineTick = Math.max(earliestTick, (deadlineNanos - startTimeNanos + tickNanos - 1) / tickNanos);
+        final int bucket = (int) deadlineTick & mask;
+
+        final Entry entry = pool.borrow();
+        entry.deadlineTick = deadlineTick;
+        entry.bucket = bucket;
+        entry.prev = null;
+        entry.next = buckets[bucket];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        buckets[bucket] = entry;
+
+        size++;
+        return entry;
+    }
+
+    private Entry collectExpiring(final int bucket) {
+        Entry expiring = null;
+        Entry entry = buckets[bucket];
+
+        while (entry != null) {
+            final Entry next = entry.next;
+            if (entry.deadlineTick <= currentTick) {
+                unlink(entry);
+                entry.bucket = EXPIRING;
+                entry.next = expiring;
+                expiring = entry;
+            }
+
+            entry = next;
+        }
+
+        return expiring;
+    }
+
+    private void unlink(final Entry entry) {
+        if (entry.prev == null) {
+            buckets[entry.bucket] = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private void releaseAll(final Entry failed, final Entry remaining) {
+        release(failed);
+
+        Entry entry = remaining;
+        while (entry != null) {
+            final Entry next = entry.next;
+            if (!entry.isCancelled()) {
+                entry.bucket = (int) currentTick & mask;
+                entry.deadlineTick = currentTick;
+                entry.prev = null;
+                entry.next = buckets[entry.bucket];
+                if (entry.next != null) {
+                    entry.next.prev = entry;
+                }
+                buckets[entry.bucket] = entry;
+            } else {
+                release(entry);
+            }
+
+            entry = next;
+        }
+    }
+
+    private void release(final Entry entry) {
+        entry.clear();
+        entry.generation++;
+        entry.bucket = FREE;
+        entry.next = null;
+        pool.release(entry);
+    }
+
+    private Entry newEntry() {
+        if (entryCount == entries.length) {
+            entries = Arrays.copyOf(entries, entryCount << 1);
+        }
+
+        final Entry entry = new Entry(entryCount);
+        entries[entryCount++] = entry;
+        return entry;
+    }
+
+    private static final class Entry {
+        private final int index;
+        private int generation;
+        private long deadlineTick;
+        private int bucket = FREE;
+        private Entry prev;
+        private Entry next;
+
+        private TimeoutHandler handler;
+        private Cancelable cancelable;
+        private CompletableResultFuture<Result> future;
+        private Result timeoutResult;
+
+        Entry(final int index) {
+            this.index = index;
+        }
+
+        long timerId() {
+            return (long) index << 32 | (generation & 0xFFFFFFFFL);
+        }
+
+        boolean isCancelled() {
+            return handler == null && cancelable == null && future == null;
+        }
+
+        @SuppressWarnings("unchecked")
+        <R extends Result> void setFuture(final CompletableResultFuture<R> future, final R timeoutResult) {
+            this.future = (CompletableResultFuture<Result>) future;
+            this.timeoutResult = timeoutResult;
+        }
+
+        void expire() {
+            if (handler != null) {
+                handler.onTimeout(timerId());
+            } else if (cancelable != null) {
+                cancelable.cancel();
+            } else {
+                future.complete(timeoutResult);
+            }
+        }
+
+        void clear() {
+            handler = null;
+            cancelable = null;
+            future = null;
+            timeoutResult = null;
+        }
+    }
+}
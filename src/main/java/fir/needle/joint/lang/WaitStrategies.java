@@ -0,0 +1,187 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Factory of the {@link WaitStrategy} implementations, from the lowest latency and the highest CPU usage
+ * to the opposite:
+ * <ul>
+ *     <li>{@link #busySpin()} keeps the thread running, hinting the CPU with {@code Thread.onSpinWait()};</li>
+ *     <li>{@link #spinThenYield(int)} spins for a while and then yields the CPU to other threads;</li>
+ *     <li>{@link #backoff(int, int, long, long)} spins, yields and then parks for exponentially growing
+ *     periods of time;</li>
+ *     <li>{@link #park()} parks the thread until the future is completed, the default one.</li>
+ * </ul>
+ * The spinning strategies do not allocate while waiting. {@link #park()} allocates a node per wait which ends up
+ * parked, the node is unlinked from the future when the wait times out.
+ */
+public final class WaitStrategies {
+    private static final WaitStrategy BUSY_SPIN = new BusySpin();
+    private static final WaitStrategy PARK = new Park();
+
+    private WaitStrategies() {
+
+    }
+
+    public static WaitStrategy busySpin() {
+        return BUSY_SPIN;
+    }
+
+    public static WaitStrategy spinThenYield(final int spins) {
+        return new Backoff(spins, Integer.MAX_VALUE, 0, 0);
+    }
+
+    /**
+     * @param spins        how many times to spin before yielding
+     * @param yields       how many times to yield before parking
+     * @param minParkNanos the first park period
+     * @param maxParkNanos the max park period, the period is doubled after every park until it reaches the max
+     * @return the strategy
+     */
+    public static WaitStrategy backoff(
+            final int spins,
+            final int yields,
+            final long minParkNanos,
+            final long maxParkNanos) {
+
+        return new Backoff(spins, yields, minParkNanos, maxParkNanos);
+    }
+
+    public static WaitStrategy park() {
+        return PARK;
+    }
+
+    private static long deadline(final long timeoutNanos) {
+        return timeoutNanos == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + timeoutNanos;
+    }
+
+    private static long remaining(final long deadline) {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private static final class BusySpin implements WaitStrategy {
+
+        @Override
+        public boolean await(final ListenableFuture<?> future, final long timeoutNanos) throws InterruptedException {
+            final long deadline = deadline(timeoutNanos);
+
+            while (!future.isDone()) {
+                checkInterrupted();
+                if (remaining(deadline) <= 0) {
+                    return false;
+                }
+
+                SpinWait.onSpinWait();
+            }
+
+            return true;
+        }
+    }
+
+    private static final class Backoff implements WaitStrategy {
+        private final int spins;
+        private final int yields;
+        private final long minParkNanos;
+        private final long maxParkNanos;
+
+        Backoff(final int spins, final int yields, final long minParkNanos, final long maxParkNanos) {
+            this.spins = spins;
+            this.yields = yields;
+            this.minParkNanos = minParkNanos;
+            this.maxParkNanos = maxParkNanos;
+        }
+
+        @Override
+        public boolean await(final ListenableFuture<?> future, final long timeoutNanos) throws InterruptedException {
+            final long deadline = deadline(timeoutNanos);
+            long iteration = 0;
+            long parkNanos = minParkNanos;
+
+            while (!future.isDone()) {
+                checkInterrupted();
+                final long remaining = remaining(deadline);
+                if (remaining <= 0) {
+                    return false;
+                }
+
+                if (iteration < spins) {
+                    SpinWait.onSpinWait();
+                } else if (iteration < (long) spins + yields) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(Math.min(parkNanos, remaining));
+                    parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+                }
+
+                iteration++;
+            }
+
+            return true;
+        }
+    }
+
+    private static final class Park implements WaitStrategy {
+
+        @Override
+        public boolean await(final ListenableFuture<?> future, final long timeoutNanos) throws InterruptedException {
+            if (future instanceof CompletableResultFuture) {
+                return ((CompletableResultFuture<?>) future).park(timeoutNanos);
+            }
+
+            if (future.isDone()) {
+                return true;
+            }
+
+            // other futures cannot unlink a listener, so one is added per wait and left behind on a timeout
+            final Thread thread = Thread.currentThread();
+            final long deadline = deadline(timeoutNanos);
+            future.onComplete(result -> LockSupport.unpark(thread));
+
+            while (!future.isDone()) {
+                final long remaining = remaining(deadline);
+                if (remaining <= 0) {
+                    return false;
+                }
+
+                if (remaining == Long.MAX_VALUE) {
+                    LockSupport.park(future);
+                } else {
+                    LockSupport.parkNanos(future, remaining);
+                }
+
+                checkInterrupted();
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,775 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import fir.needle.joint.lang.Closeable;
+import fir.needle.joint.lang.CompletableResultFuture;
+import fir.needle.joint.lang.ListenableFuture;
+import fir.needle.joint.lang.SpinWait;
+import fir.needle.joint.lang.VoidResult;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logger which copies the chars of messages into preallocated events of a ring buffer and passes them to
+ * the delegate logger by a background thread in batches, so logging does neither I/O nor allocation on the
+ * caller thread.
+ * <p>
+ * Messages longer than the max message length are truncated. The templates are formatted by the background
+ * thread: arguments are copied, while templates and throwables are passed by reference. The delegate
+ * gets a {@link CharSequence} which is valid only during the call. If the policy is {@link OverflowPolicy#SPILL},
+ * the delegate must be thread-safe since it is called by both the background thread and the callers.
+ * <p>
+ * Messages logged after the logger is closed are passed to the delegate by the caller thread. An event which
+ * fails while its chars are copied, e.g. because a char sequence throws, is published as a skipped one, so
+ * the background thread never waits for it.
+ */
+public class AsyncLogger implements Logger, Closeable {
+    private static final int INFO = 0;
+    private static final int TRACE = 1;
+    private static final int ERROR = 2;
+    private static final int SKIPPED = -1;
+
+    private static final int NOT_STARTED = 0;
+    private static final int RUNNING = 1;
+    private static final int CLOSING = 2;
+    private static final int CLOSED = 3;
+
+    private static final int BATCH_SIZE = 64;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Logger delegate;
+    private final OverflowPolicy overflowPolicy;
+    private final ThreadFactory threadFactory;
+    private final int mask;
+    private final Event[] events;
+
+    /**
+     * Sequence of each event: equals to the position of the event when it may be claimed, to the position + 1
+     * when it is published.
+     */
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicInteger state = new AtomicInteger(NOT_STARTED);
+    private final CompletableResultFuture<VoidResult> closeFuture = new CompletableResultFuture<>();
+
+    private final StringBuilder formatted = new StringBuilder(256);
+
+    private long head;
+    private volatile Thread thread;
+    private volatile boolean parked;
+
+    /**
+     * @param delegate         logger which does the actual logging
+     * @param capacity         number of events, power of 2
+     * @param maxMessageLength messages are truncated to this length
+     * @param overflowPolicy   what to do when the buffer is full
+     * @param threadFactory    creates the background thread
+     */
+    public AsyncLogger(
+            final Logger delegate,
+            final int capacity,
+            final int maxMessageLength,
+            final OverflowPolicy overflowPolicy,
+            final ThreadFactory threadFactory) {
+
+        if (capacity <= 0 || (capacity & (capacity - 1)) != 0) {
+            throw new IllegalArgumentException("Capacity should be a positive power of 2");
+        }
+
+        if (maxMessageLength <= 0) {
+            throw new IllegalArgumentException("Max message length should be > 0");
+        }
+
+        this.delegate = delegate;
+        this.overflowPolicy = overflowPolicy;
+        this.threadFactory = threadFactory;
+        this.mask = capacity - 1;
+        this.events = new Event[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new Event(this, maxMessageLength);
+            sequences.set(i, i);
+        }
+    }
+
+    public void start() {
+        if (!state.compareAndSet(NOT_STARTED, RUNNING)) {
+            throw new IllegalStateException("Logger has been started already");
+        }
+
+        final Thread loggerThread = threadFactory.newThread(this::run);
+        thread = loggerThread;
+        loggerThread.start();
+    }
+
+    /**
+     * @return number of messages dropped because the buffer was full
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return delegate.isInfoEnabled();
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return delegate.isTraceEnabled();
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return delegate.isErrorEnabled();
+    }
+
+    @Override
+    public void info(final CharSequence message) {
+        if (isInfoEnabled()) {
+            publish(INFO, message, null);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence message) {
+        if (isTraceEnabled()) {
+            publish(TRACE, message, null);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence message, final Throwable t) {
+        if (isTraceEnabled()) {
+            publish(TRACE, message, t);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence message) {
+        if (isErrorEnabled()) {
+            publish(ERROR, message, null);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence message, final Throwable t) {
+        if (isErrorEnabled()) {
+            publish(ERROR, message, t);
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final long arg) {
+        if (isInfoEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(INFO, template, null).argument(arg));
+            } else if (spill()) {
+                delegate.info(template, arg);
+            }
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final CharSequence arg) {
+        if (isInfoEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(INFO, template, null).argument(arg));
+            } else if (spill()) {
+                delegate.info(template, arg);
+            }
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isInfoEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(INFO, template, null).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.info(template, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final long arg1, final long arg2) {
+        if (isInfoEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(INFO, template, null).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.info(template, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isInfoEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(INFO, template, null).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.info(template, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final long arg) {
+        if (isTraceEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(TRACE, template, null).argument(arg));
+            } else if (spill()) {
+                delegate.trace(template, arg);
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final CharSequence arg) {
+        if (isTraceEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(TRACE, template, null).argument(arg));
+            } else if (spill()) {
+                delegate.trace(template, arg);
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isTraceEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(TRACE, template, null).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.trace(template, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final long arg1, final long arg2) {
+        if (isTraceEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(TRACE, template, null).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.trace(template, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isTraceEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(TRACE, template, null).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.trace(template, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final Throwable t, final long arg) {
+        if (isTraceEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(TRACE, template, t).argument(arg));
+            } else if (spill()) {
+                delegate.trace(template, t, arg);
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final Throwable t, final CharSequence arg) {
+        if (isTraceEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(TRACE, template, t).argument(arg));
+            } else if (spill()) {
+                delegate.trace(template, t, arg);
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final Throwable t, final CharSequence arg1, final long arg2) {
+        if (isTraceEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(TRACE, template, t).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.trace(template, t, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final long arg) {
+        if (isErrorEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(ERROR, template, null).argument(arg));
+            } else if (spill()) {
+                delegate.error(template, arg);
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final CharSequence arg) {
+        if (isErrorEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(ERROR, template, null).argument(arg));
+            } else if (spill()) {
+                delegate.error(template, arg);
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isErrorEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(ERROR, template, null).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.error(template, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final long arg1, final long arg2) {
+        if (isErrorEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(ERROR, template, null).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.error(template, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isErrorEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(ERROR, template, null).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.error(template, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final Throwable t, final long arg) {
+        if (isErrorEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(ERROR, template, t).argument(arg));
+            } else if (spill()) {
+                delegate.error(template, t, arg);
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final Throwable t, final CharSequence arg) {
+        if (isErrorEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(ERROR, template, t).argument(arg));
+            } else if (spill()) {
+                delegate.error(template, t, arg);
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final Throwable t, final CharSequence arg1, final long arg2) {
+        if (isErrorEnabled()) {
+            final Event event = claimEvent();
+            if (event != null) {
+                publish(event.template(ERROR, template, t).argument(arg1).argument(arg2));
+            } else if (spill()) {
+                delegate.error(template, t, arg1, arg2);
+            }
+        }
+    }
+
+    @Override
+    public ListenableFuture<VoidResult> closeAsync() {
+        if (state.compareAndSet(NOT_STARTED, CLOSED)) {
+            drainClaimed();
+            closeFuture.complete(VoidResult.NO_ERROR_RESULT);
+        } else if (state.compareAndSet(RUNNING, CLOSING)) {
+            LockSupport.unpark(thread);
+        }
+
+        return closeFuture;
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeAsync().sync();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(final int level, final CharSequence message, final Throwable t) {
+        final Event event = claimEvent();
+        if (event != null) {
+            publish(event.message(level, message, t));
+        } else if (spill()) {
+            log(delegate, level, message, t);
+        }
+    }
+
+    private void publish(final Event event) {
+        sequences.lazySet((int) event.position & mask, event.position + 1);
+
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * @return claimed event or {@code null} if the message should not be buffered
+     */
+    private Event claimEvent() {
+        if (state.get() >= CLOSING) {
+            return null;
+        }
+
+        final long position = claim();
+        if (position < 0) {
+            return null;
+        }
+
+        final Event event = events[(int) position & mask];
+        event.position = position;
+
+        // the final drain waits only for the events claimed before the logger is closed
+        if (state.get() == CLOSED) {
+            publish(event.skip());
+            return null;
+        }
+
+        return event;
+    }
+
+    /**
+     * @return {@code true} if the message which has not been buffered should be passed to the delegate by
+     * the caller thread, {@code false} if it is dropped
+     */
+    private boolean spill() {
+        if (state.get() >= CLOSING || overflowPolicy == OverflowPolicy.SPILL) {
+            return true;
+        }
+
+        dropped.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * @return claimed position or -1 if the buffer is full and the message should not wait
+     */
+    private long claim() {
+        while (true) {
+            final long position = tail.get();
+            final long sequence = sequences.get((int) position & mask);
+
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (sequence < position) {
+                if (overflowPolicy != OverflowPolicy.BLOCK || state.get() >= CLOSING) {
+                    return -1;
+                }
+
+                SpinWait.onSpinWait();
+                Thread.yield();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (state.get() == RUNNING) {
+                if (drain() == 0) {
+                    idle();
+                }
+            }
+
+            state.set(CLOSED);
+            drainClaimed();
+        } finally {
+            state.set(CLOSED);
+            closeFuture.complete(VoidResult.NO_ERROR_RESULT);
+        }
+    }
+
+    /**
+     * Drains all the events claimed before the logger has been closed, waiting for those which are claimed,
+     * but not published yet.
+     */
+    private void drainClaimed() {
+        final long claimed = tail.get();
+        while (head < claimed) {
+            if (drain() == 0) {
+                Thread.yield();
+            }
+        }
+    }
+
+    private int drain() {
+        int drained = 0;
+
+        while (drained < BATCH_SIZE) {
+            final int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+
+            final Event event = events[index];
+            try {
+                if (event.level != SKIPPED) {
+                    log(delegate, event.level, event.message(formatted), event.throwable);
+                }
+            } catch (final Throwable t) {
+                // the delegate failures must not stop the logger
+            } finally {
+                event.clear();
+                sequences.lazySet(index, head + events.length);
+                head++;
+                drained++;
+            }
+        }
+
+        return drained;
+    }
+
+    private void idle() {
+        parked = true;
+        try {
+            if (sequences.get((int) head & mask) != head + 1 && state.get() == RUNNING) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        } finally {
+            parked = false;
+        }
+    }
+
+    private static void log(final Logger logger, final int level, final CharSequence message, final Throwable t) {
+        switch (level) {
+            case INFO:
+                logger.info(message);
+                break;
+
+            case TRACE:
+                if (t == null) {
+                    logger.trace(message);
+                } else {
+                    logger.trace(message, t);
+                }
+                break;
+
+            default:
+                if (t == null) {
+                    logger.error(message);
+                } else {
+                    logger.error(message, t);
+                }
+        }
+    }
+
+    /**
+     * Either a message or a template with arguments. The chars of a message or of the char sequence arguments
+     * are copied, the template is kept by reference.
+     */
+    private static final class Event implements CharSequence {
+        private static final int MAX_ARGUMENTS = 2;
+        private static final int LONG_ARGUMENT = -1;
+
+        private final AsyncLogger logger;
+        private final char[] chars;
+        private final long[] longArguments = new long[MAX_ARGUMENTS];
+        private final int[] argumentOffsets = new int[MAX_ARGUMENTS];
+        private final int[] argumentLengths = new int[MAX_ARGUMENTS];
+        private long position;
+        private int length;
+        private int level;
+        private Throwable throwable;
+        private CharSequence template;
+        private int argumentCount;
+
+        Event(final AsyncLogger logger, final int maxMessageLength) {
+            this.logger = logger;
+            this.chars = new char[maxMessageLength];
+        }
+
+        Event message(final int level, final CharSequence message, final Throwable t) {
+            template(level, null, t);
+            copy(message);
+            return this;
+        }
+
+        Event template(final int level, final CharSequence template, final Throwable t) {
+            this.level = level;
+            this.throwable = t;
+            this.template = template;
+            this.length = 0;
+            this.argumentCount = 0;
+            return this;
+        }
+
+        Event argument(final long value) {
+            longArguments[argumentCount] = value;
+            argumentLengths[argumentCount] = LONG_ARGUMENT;
+            argumentCount++;
+            return this;
+        }
+
+        Event argument(final CharSequence value) {
+            argumentOffsets[argumentCount] = length;
+            argumentLengths[argumentCount] = copy(value != null ? value : "null");
+            argumentCount++;
+            return this;
+        }
+
+        /**
+         * @param builder to format the template into
+         * @return the message or the formatted template
+         */
+        CharSequence message(final StringBuilder builder) {
+            if (template == null) {
+                return this;
+            }
+
+            builder.setLength(0);
+            int next = 0;
+
+            for (int i = 0; i < argumentCount; i++) {
+                next = MessageFormatter.appendUntilArgument(builder, template, next);
+                if (next < 0) {
+                    return builder;
+                }
+
+                if (argumentLengths[i] == LONG_ARGUMENT) {
+                    builder.append(longArguments[i]);
+                } else {
+                    builder.append(chars, argumentOffsets[i], argumentLengths[i]);
+                }
+            }
+
+            MessageFormatter.appendRest(builder, template, next);
+            return builder;
+        }
+
+        Event skip() {
+            level = SKIPPED;
+            clear();
+            return this;
+        }
+
+        void clear() {
+            throwable = null;
+            template = null;
+            length = 0;
+        }
+
+        /**
+         * @param value to be copied
+         * @return number of copied chars, the rest is truncated
+         */
+        private int copy(final CharSequence value) {
+            try {
+                final int copied = Math.min(value.length(), chars.length - length);
+
+                if (value instanceof String) {
+                    ((String) value).getChars(0, copied, chars, length);
+                } else {
+                    for (int i = 0; i < copied; i++) {
+                        chars[length + i] = value.charAt(i);
+                    }
+                }
+
+                length += copied;
+                return copied;
+            } catch (final Throwable t) {
+                logger.publish(skip());
+                throw t;
+            }
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + " is out of bounds [0, " + length + ")");
+            }
+
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import fir.needle.joint.io.BinaryFlyweight;
+import fir.needle.joint.io.ByteArea;
+import fir.needle.joint.io.CharAreaToCharSequence;
+import fir.needle.joint.io.ChannelByteAreaReader;
+import fir.needle.joint.io.LengthPrefixFraming;
+import fir.needle.joint.io.RecordSplitter;
+import fir.needle.joint.lang.LangUtil;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Renders a binary log written by {@link BinaryLogWriter} to text, one line per record.
+ * <p>
+ * The file is read twice: the first pass collects the templates, the second one renders the records, so
+ * records are rendered even if they precede the record of their template.
+ * <p>
+ * Usage: {@code java fir.needle.joint.logging.BinaryLogDecoder <binary log file>}
+ */
+public final class BinaryLogDecoder {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+    private static final String[] LEVELS = {"ERROR", "INFO", "TRACE"};
+
+    private final Map<Long, String> templates = new HashMap<>();
+    private final BinaryFlyweight record = new BinaryFlyweight();
+    private final CharAreaToCharSequence string = new CharAreaToCharSequence();
+    private final StringBuilder line = new StringBuilder();
+    private final Appendable output;
+
+    private BinaryLogDecoder(final Appendable output) {
+        this.output = output;
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: java " + BinaryLogDecoder.class.getName() + " <binary log file>");
+            System.exit(1);
+        }
+
+        final PrintStream output = System.out;
+        decode(Paths.get(args[0]), output);
+        output.flush();
+    }
+
+    /**
+     * @param path   of the binary log file
+     * @param output to append the text lines to
+     * @throws IOException if reading or appending failed
+     */
+    public static void decode(final Path path, final Appendable output) throws IOException {
+        final BinaryLogDecoder decoder = new BinaryLogDecoder(output);
+        decoder.pass(path, decoder::collectTemplate);
+        decoder.pass(path, decoder::render);
+    }
+
+    private void pass(final Path path, final RecordDecoder recordDecoder) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final RecordSplitter splitter = new RecordSplitter(
+                    new LengthPrefixFraming(BinaryLogWriter.LENGTH_PREFIX, false),
+                    (area, startIndex, length) -> decodeRecord(recordDecoder, area, startIndex),
+                    MAX_RECORD_LENGTH);
+
+            splitter.split(new ChannelByteAreaReader(channel, CHUNK_SIZE));
+        }
+    }
+
+    private void decodeRecord(final RecordDecoder recordDecoder, final ByteArea area, final long startIndex) {
+        record.wrap(area, startIndex);
+        try {
+            recordDecoder.decode(readByte());
+        } catch (final IOException e) {
+            LangUtil.rethrowUnchecked(e);
+        }
+    }
+
+    private void collectTemplate(final byte recordType) {
+        if (recordType == BinaryLogger.TEMPLATE_RECORD) {
+            final long id = record.readVarLong();
+            templates.put(id, record.readString(string).toString());
+        }
+    }
+
+    private void render(final byte recordType) throws IOException {
+        if (recordType == BinaryLogger.TEMPLATE_RECORD) {
+            return;
+        }
+
+        line.setLength(0);
+        final long timestamp = record.getLongLE(record.position());
+        record.position(record.position() + Long.BYTES);
+        final int level = readByte();
+        line.append(Instant.ofEpochMilli(timestamp)).append(' ').append(LEVELS[level]).append(' ');
+
+        if (recordType == BinaryLogger.MESSAGE_RECORD) {
+            line.append(record.readString(string));
+            renderThrowable();
+        } else {
+            final long templateId = record.readVarLong();
+            renderEvent(templates.get(templateId), templateId, readByte());
+            renderThrowable();
+        }
+
+        output.append(line).append(System.lineSeparator());
+    }
+
+    private void renderEvent(final String template, final long templateId, final int argumentCount) {
+        if (template == null) {
+            line.append("<unknown template ").append(templateId).append('>');
+            for (int i = 0; i < argumentCount; i++) {
+                renderArgument(line.append(' '));
+            }
+            return;
+        }
+
+        int next = 0;
+        for (int i = 0; i < argumentCount; i++) {
+            if (next >= 0) {
+                next = MessageFormatter.appendUntilArgument(line, template, next);
+            }
+
+            if (next >= 0) {
+                renderArgument(line);
+            } else {
+                skipArgument();
+            }
+        }
+
+        if (next >= 0) {
+            MessageFormatter.appendRest(line, template, next);
+        }
+    }
+
+    private void renderArgument(final StringBuilder builder) {
+        if (readByte() == BinaryLogger.LONG_ARGUMENT) {
+            builder.append(record.readZigZagLong());
+        } else {
+            builder.append(record.readString(string));
+        }
+    }
+
+    private void skipArgument() {
+        if (readByte() == BinaryLogger.LONG_ARGUMENT) {
+            record.readVarLong();
+        } else {
+            record.readString(string);
+        }
+    }
+
+    private void renderThrowable() {
+        if (readByte() != 0) {
+            line.append(' ').append(record.readString(string));
+            final CharSequence message = record.readString(string);
+            if (message.length() > 0) {
+                line.append(": ").append(message);
+            }
+        }
+    }
+
+    private byte readByte() {
+        final long position = record.position();
+        record.position(position + 1);
+        return record.getByte(position);
+    }
+
+    @FunctionalInterface
+    private interface RecordDecoder {
+        void decode(byte recordType) throws IOException;
+    }
+}
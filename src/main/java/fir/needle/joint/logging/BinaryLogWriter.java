@@ -0,0 +1,112 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import fir.needle.joint.io.BinaryAppender;
+import fir.needle.joint.io.ByteArea;
+import fir.needle.joint.io.ByteBufferArea;
+import fir.needle.joint.io.ByteRecordHandler;
+import fir.needle.joint.io.ByteRingBuffer;
+import fir.needle.joint.lang.LangUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes records drained from the ring buffer of a {@link BinaryLogger} to a channel, every record prefixed
+ * with its length as a little-endian 4-byte integer, which is the format read by {@link BinaryLogDecoder}.
+ * <p>
+ * Records are staged in a buffer and written when it is full or on {@link #flush()}. This class is not
+ * thread-safe, it is intended to be used by the single consumer of the ring buffer.
+ */
+public class BinaryLogWriter implements ByteRecordHandler {
+    static final int LENGTH_PREFIX = Integer.BYTES;
+
+    private final WritableByteChannel channel;
+    private final ByteBufferArea staging;
+    private final BinaryAppender appender;
+
+    /**
+     * @param channel       to write to
+     * @param bufferSize    size of the staging buffer, not less than the max record length of the ring buffer
+     *                      plus {@value #LENGTH_PREFIX}
+     */
+    public BinaryLogWriter(final WritableByteChannel channel, final int bufferSize) {
+        this.channel = channel;
+        this.staging = new ByteBufferArea(ByteBuffer.allocateDirect(bufferSize));
+        this.appender = new BinaryAppender(staging);
+    }
+
+    /**
+     * Drains all the records of the ring buffer and writes them to the channel.
+     *
+     * @param ringBuffer to drain
+     * @return number of records drained
+     * @throws IOException if writing failed
+     */
+    public int drain(final ByteRingBuffer ringBuffer) throws IOException {
+        int drained = 0;
+        int read;
+        while ((read = ringBuffer.read(this)) > 0) {
+            drained += read;
+        }
+
+        flush();
+        return drained;
+    }
+
+    @Override
+    public void onRecord(final ByteArea area, final long startIndex, final long length) {
+        final ByteBuffer buffer = staging.buffer();
+        if (buffer.remaining() < LENGTH_PREFIX + length) {
+            try {
+                flush();
+            } catch (final IOException e) {
+                LangUtil.rethrowUnchecked(e);
+            }
+
+            if (buffer.remaining() < LENGTH_PREFIX + length) {
+                throw new IllegalArgumentException("Record of " + length + " bytes exceeds the buffer size");
+            }
+        }
+
+        appender.appendIntLE((int) length);
+        staging.appendArea(area, startIndex, length);
+    }
+
+    /**
+     * Writes all the staged records to the channel.
+     *
+     * @throws IOException if writing failed
+     */
+    public void flush() throws IOException {
+        final ByteBuffer buffer = staging.buffer();
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,550 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import fir.needle.joint.io.BinaryAppender;
+import fir.needle.joint.io.ByteRingBuffer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Logger which writes binary records into a {@link ByteRingBuffer} instead of formatting text.
+ * <p>
+ * Every template is registered once and gets an id. A record of a template call consists of the timestamp,
+ * the level, the template id and the raw arguments, so logging costs about as much as copying the arguments.
+ * The template itself is written once as a separate template record. The records are drained from the ring
+ * buffer by a consumer, e.g. a {@link BinaryLogWriter}, and rendered to text later by {@link BinaryLogDecoder}.
+ * <p>
+ * Templates are looked up by equality, so they are expected to be constant strings. Strings are encoded
+ * as ASCII by {@link BinaryAppender#appendString(CharSequence)}. Records which do not fit into the ring buffer
+ * are dropped and counted. A record is aborted if anything fails while it is encoded, e.g. an argument changes
+ * its length after the record has been sized, so the consumer skips it instead of waiting for it forever.
+ */
+public class BinaryLogger implements Logger {
+    static final int ERROR_LEVEL = 0;
+    static final int INFO_LEVEL = 1;
+    static final int TRACE_LEVEL = 2;
+
+    static final byte TEMPLATE_RECORD = 1;
+    static final byte MESSAGE_RECORD = 2;
+    static final byte EVENT_RECORD = 3;
+
+    static final byte LONG_ARGUMENT = 1;
+    static final byte CHARS_ARGUMENT = 2;
+
+    private static final int MESSAGE_HEADER_LENGTH = 1 + Long.BYTES + 1;
+    private static final int EVENT_HEADER_LENGTH = MESSAGE_HEADER_LENGTH + 1;
+
+    private final ByteRingBuffer ringBuffer;
+    private final int level;
+    private final LongSupplier clock;
+    private final ConcurrentMap<CharSequence, Template> templates = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTemplateId = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(Encoder::new);
+
+    BinaryLogger(final ByteRingBuffer ringBuffer, final int level, final LongSupplier clock) {
+        this.ringBuffer = ringBuffer;
+        this.level = level;
+        this.clock = clock;
+    }
+
+    public static BinaryLogger error(final ByteRingBuffer ringBuffer) {
+        return new BinaryLogger(ringBuffer, ERROR_LEVEL, System::currentTimeMillis);
+    }
+
+    public static BinaryLogger info(final ByteRingBuffer ringBuffer) {
+        return new BinaryLogger(ringBuffer, INFO_LEVEL, System::currentTimeMillis);
+    }
+
+    public static BinaryLogger trace(final ByteRingBuffer ringBuffer) {
+        return new BinaryLogger(ringBuffer, TRACE_LEVEL, System::currentTimeMillis);
+    }
+
+    public ByteRingBuffer ringBuffer() {
+        return ringBuffer;
+    }
+
+    /**
+     * Registers the template unless it is registered already.
+     *
+     * @param template message template
+     * @return id of the template
+     */
+    public int register(final CharSequence template) {
+        return template(template).id;
+    }
+
+    /**
+     * @return number of records dropped because they did not fit into the ring buffer
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return level >= INFO_LEVEL;
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return level >= TRACE_LEVEL;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return level >= ERROR_LEVEL;
+    }
+
+    @Override
+    public void info(final CharSequence message) {
+        if (isInfoEnabled()) {
+            writeMessage(INFO_LEVEL, message, null);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence message) {
+        if (isTraceEnabled()) {
+            writeMessage(TRACE_LEVEL, message, null);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence message, final Throwable t) {
+        if (isTraceEnabled()) {
+            writeMessage(TRACE_LEVEL, message, t);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence message) {
+        if (isErrorEnabled()) {
+            writeMessage(ERROR_LEVEL, message, null);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence message, final Throwable t) {
+        if (isErrorEnabled()) {
+            writeMessage(ERROR_LEVEL, message, t);
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final long arg) {
+        if (isInfoEnabled()) {
+            final Encoder encoder = claimEvent(INFO_LEVEL, template, null, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final CharSequence arg) {
+        if (isInfoEnabled()) {
+            final Encoder encoder = claimEvent(INFO_LEVEL, template, null, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isInfoEnabled()) {
+            final Encoder encoder = claimEvent(INFO_LEVEL, template, null, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final long arg1, final long arg2) {
+        if (isInfoEnabled()) {
+            final Encoder encoder = claimEvent(INFO_LEVEL, template, null, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isInfoEnabled()) {
+            final Encoder encoder = claimEvent(INFO_LEVEL, template, null, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final long arg) {
+        if (isTraceEnabled()) {
+            final Encoder encoder = claimEvent(TRACE_LEVEL, template, null, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final CharSequence arg) {
+        if (isTraceEnabled()) {
+            final Encoder encoder = claimEvent(TRACE_LEVEL, template, null, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isTraceEnabled()) {
+            final Encoder encoder = claimEvent(TRACE_LEVEL, template, null, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final long arg1, final long arg2) {
+        if (isTraceEnabled()) {
+            final Encoder encoder = claimEvent(TRACE_LEVEL, template, null, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isTraceEnabled()) {
+            final Encoder encoder = claimEvent(TRACE_LEVEL, template, null, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final Throwable t, final long arg) {
+        if (isTraceEnabled()) {
+            final Encoder encoder = claimEvent(TRACE_LEVEL, template, t, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final Throwable t, final CharSequence arg) {
+        if (isTraceEnabled()) {
+            final Encoder encoder = claimEvent(TRACE_LEVEL, template, t, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final Throwable t, final CharSequence arg1, final long arg2) {
+        if (isTraceEnabled()) {
+            final Encoder encoder = claimEvent(TRACE_LEVEL, template, t, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final long arg) {
+        if (isErrorEnabled()) {
+            final Encoder encoder = claimEvent(ERROR_LEVEL, template, null, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final CharSequence arg) {
+        if (isErrorEnabled()) {
+            final Encoder encoder = claimEvent(ERROR_LEVEL, template, null, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isErrorEnabled()) {
+            final Encoder encoder = claimEvent(ERROR_LEVEL, template, null, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final long arg1, final long arg2) {
+        if (isErrorEnabled()) {
+            final Encoder encoder = claimEvent(ERROR_LEVEL, template, null, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isErrorEnabled()) {
+            final Encoder encoder = claimEvent(ERROR_LEVEL, template, null, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final Throwable t, final long arg) {
+        if (isErrorEnabled()) {
+            final Encoder encoder = claimEvent(ERROR_LEVEL, template, t, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final Throwable t, final CharSequence arg) {
+        if (isErrorEnabled()) {
+            final Encoder encoder = claimEvent(ERROR_LEVEL, template, t, 1, argumentLength(arg));
+            if (encoder != null) {
+                encoder.appendArgument(arg).commit();
+            }
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final Throwable t, final CharSequence arg1, final long arg2) {
+        if (isErrorEnabled()) {
+            final Encoder encoder = claimEvent(ERROR_LEVEL, template, t, 2,
+                    argumentLength(arg1) + argumentLength(arg2));
+            if (encoder != null) {
+                encoder.appendArgument(arg1).appendArgument(arg2).commit();
+            }
+        }
+    }
+
+    private void writeMessage(final int messageLevel, final CharSequence message, final Throwable t) {
+        final Encoder encoder = claim(MESSAGE_HEADER_LENGTH + stringLength(message) + throwableLength(t));
+        if (encoder != null) {
+            try {
+                encoder.appendHeader(MESSAGE_RECORD, clock.getAsLong(), messageLevel, t);
+                encoder.appender.appendString(message);
+            } catch (final Throwable e) {
+                encoder.abort();
+                throw e;
+            }
+
+            encoder.commit();
+        }
+    }
+
+    private Encoder claimEvent(
+            final int eventLevel,
+            final CharSequence template,
+            final Throwable t,
+            final int argumentCount,
+            final int argumentsLength) {
+
+        final Template registered = template(template);
+        if (!registered.written) {
+            writeTemplate(registered);
+        }
+
+        final Encoder encoder = claim(EVENT_HEADER_LENGTH + BinaryAppender.varLongLength(registered.id) +
+                argumentsLength + throwableLength(t));
+        if (encoder == null) {
+            return null;
+        }
+
+        try {
+            encoder.appendHeader(EVENT_RECORD, clock.getAsLong(), eventLevel, t);
+            encoder.appender.appendVarLong(registered.id).appendByte((byte) argumentCount);
+        } catch (final Throwable e) {
+            encoder.abort();
+            throw e;
+        }
+
+        return encoder;
+    }
+
+    private Template template(final CharSequence template) {
+        final Template registered = templates.get(template);
+        if (registered != null) {
+            return registered;
+        }
+
+        final String text = template.toString();
+        return templates.computeIfAbsent(text, key -> new Template(nextTemplateId.getAndIncrement(), text));
+    }
+
+    /**
+     * Tries to write the template record, it is retried by the next call with the template if the ring buffer
+     * is full. The record may be written more than once by concurrent callers.
+     *
+     * @param template to be written
+     */
+    private void writeTemplate(final Template template) {
+        final Encoder encoder = claim(1 + BinaryAppender.varLongLength(template.id) + stringLength(template.text));
+        if (encoder != null) {
+            try {
+                encoder.appender.appendByte(TEMPLATE_RECORD).appendVarLong(template.id).appendString(template.text);
+            } catch (final Throwable e) {
+                encoder.abort();
+                throw e;
+            }
+
+            encoder.claim.commit();
+            template.written = true;
+        }
+    }
+
+    private Encoder claim(final int length) {
+        final Encoder encoder = encoders.get();
+        if (length > ringBuffer.maxRecordLength() || !ringBuffer.tryClaim(length, encoder.claim)) {
+            dropped.incrementAndGet();
+            return null;
+        }
+
+        return encoder;
+    }
+
+    private static int argumentLength(final long value) {
+        return 1 + BinaryAppender.varLongLength((value << 1) ^ (value >> 63));
+    }
+
+    private static int argumentLength(final CharSequence value) {
+        return 1 + stringLength(value != null ? value : "null");
+    }
+
+    private static int stringLength(final CharSequence value) {
+        return BinaryAppender.varLongLength(value.length()) + value.length();
+    }
+
+    private static int throwableLength(final Throwable t) {
+        if (t == null) {
+            return 1;
+        }
+
+        final String message = t.getMessage();
+        return 1 + stringLength(t.getClass().getName()) + stringLength(message != null ? message : "");
+    }
+
+    private static final class Template {
+        private final int id;
+        private final String text;
+        private volatile boolean written;
+
+        Template(final int id, final String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    private static final class Encoder {
+        private final ByteRingBuffer.Claim claim = new ByteRingBuffer.Claim();
+        private final BinaryAppender appender = new BinaryAppender(claim);
+        private Throwable throwable;
+
+        // the throwable is appended by commit() after the message or the arguments
+        void appendHeader(final byte recordType, final long timestamp, final int recordLevel, final Throwable t) {
+            appender.appendByte(recordType).appendLongLE(timestamp).appendByte((byte) recordLevel);
+            throwable = t;
+        }
+
+        Encoder appendArgument(final long value) {
+            appender.appendByte(LONG_ARGUMENT).appendZigZagLong(value);
+            return this;
+        }
+
+        Encoder appendArgument(final CharSequence value) {
+            try {
+                appender.appendByte(CHARS_ARGUMENT).appendString(value != null ? value : "null");
+            } catch (final Throwable e) {
+                abort();
+                throw e;
+            }
+
+            return this;
+        }
+
+        void commit() {
+            final Throwable t = throwable;
+            throwable = null;
+
+            try {
+                if (t == null) {
+                    appender.appendByte((byte) 0);
+                } else {
+                    final String message = t.getMessage();
+                    appender.appendByte((byte) 1).appendString(t.getClass().getName()).appendString(
+                            message != null ? message : "");
+                }
+            } catch (final Throwable e) {
+                claim.abort();
+                throw e;
+            }
+
+            claim.commit();
+        }
+
+        void abort() {
+            throwable = null;
+            claim.abort();
+        }
+    }
+}
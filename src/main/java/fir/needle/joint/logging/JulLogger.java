@@ -49,26 +49,46 @@ public class JulLogger implements Logger {
 
     @Override
     public void info(final CharSequence message) {
+        if (!isInfoEnabled()) {
+            return;
+        }
+
         logger.info(message.toString());
     }
 
     @Override
     public void trace(final CharSequence message) {
+        if (!isTraceEnabled()) {
+            return;
+        }
+
         logger.finest(message.toString());
     }
 
     @Override
     public void trace(final CharSequence message, final Throwable t) {
+        if (!isTraceEnabled()) {
+            return;
+        }
+
         logger.log(Level.FINEST, message.toString() + ' ' + t.getMessage(), t);
     }
 
     @Override
     public void error(final CharSequence message) {
+        if (!isErrorEnabled()) {
+            return;
+        }
+
         logger.severe(message.toString());
     }
 
     @Override
     public void error(final CharSequence message, final Throwable t) {
+        if (!isErrorEnabled()) {
+            return;
+        }
+
         logger.log(Level.SEVERE, message.toString() + ' ' + t, t);
     }
 }
\ No newline at end of file
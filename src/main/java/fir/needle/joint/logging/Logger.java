@@ -23,6 +23,17 @@
  */
 package fir.needle.joint.logging;
 
+/**
+ * The methods taking a template replace every {@code {}} of the template by the next argument, see
+ * {@link MessageFormatter}. Arguments are never boxed and the message is formatted only if the level is enabled.
+ * Implementations may defer formatting, so templates are expected to be constants.
+ * <p>
+ * A message is valid only during the call: the template methods pass a builder of the current thread which is
+ * reused by its next formatted call, so an implementation which keeps the message has to copy its chars.
+ * <p>
+ * A {@code null} second argument is ambiguous between the {@link Throwable} and the {@link CharSequence}
+ * overloads of {@code trace} and {@code error}, so it has to be cast to the type meant.
+ */
 public interface Logger {
 
     boolean isInfoEnabled();
@@ -40,4 +51,130 @@ public interface Logger {
     void error(CharSequence message);
 
     void error(CharSequence message, Throwable t);
+
+    default void info(final CharSequence template, final long arg) {
+        if (isInfoEnabled()) {
+            info(MessageFormatter.format(template, arg));
+        }
+    }
+
+    default void info(final CharSequence template, final CharSequence arg) {
+        if (isInfoEnabled()) {
+            info(MessageFormatter.format(template, arg));
+        }
+    }
+
+    default void info(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isInfoEnabled()) {
+            info(MessageFormatter.format(template, arg1, arg2));
+        }
+    }
+
+    default void info(final CharSequence template, final long arg1, final long arg2) {
+        if (isInfoEnabled()) {
+            info(MessageFormatter.format(template, arg1, arg2));
+        }
+    }
+
+    default void info(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isInfoEnabled()) {
+            info(MessageFormatter.format(template, arg1, arg2));
+        }
+    }
+
+    default void trace(final CharSequence template, final long arg) {
+        if (isTraceEnabled()) {
+            trace(MessageFormatter.format(template, arg));
+        }
+    }
+
+    default void trace(final CharSequence template, final CharSequence arg) {
+        if (isTraceEnabled()) {
+            trace(MessageFormatter.format(template, arg));
+        }
+    }
+
+    default void trace(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isTraceEnabled()) {
+            trace(MessageFormatter.format(template, arg1, arg2));
+        }
+    }
+
+    default void trace(final CharSequence template, final long arg1, final long arg2) {
+        if (isTraceEnabled()) {
+            trace(MessageFormatter.format(template, arg1, arg2));
+        }
+    }
+
+    default void trace(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isTraceEnabled()) {
+            trace(MessageFormatter.format(template, arg1, arg2));
+        }
+    }
+
+    default void trace(final CharSequence template, final Throwable t, final long arg) {
+        if (isTraceEnabled()) {
+            trace(MessageFormatter.format(template, arg), t);
+        }
+    }
+
+    default void trace(final CharSequence template, final Throwable t, final CharSequence arg) {
+        if (isTraceEnabled()) {
+            trace(MessageFormatter.format(template, arg), t);
+        }
+    }
+
+    default void trace(final CharSequence template, final Throwable t, final CharSequence arg1, final long arg2) {
+        if (isTraceEnabled()) {
+            trace(MessageFormatter.format(template, arg1, arg2), t);
+        }
+    }
+
+    default void error(final CharSequence template, final long arg) {
+        if (isErrorEnabled()) {
+            error(MessageFormatter.format(template, arg));
+        }
+    }
+
+    default void error(final CharSequence template, final CharSequence arg) {
+        if (isErrorEnabled()) {
+            error(MessageFormatter.format(template, arg));
+        }
+    }
+
+    default void error(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isErrorEnabled()) {
+            error(MessageFormatter.format(template, arg1, arg2));
+        }
+    }
+
+    default void error(final CharSequence template, final long arg1, final long arg2) {
+        if (isErrorEnabled()) {
+            error(MessageFormatter.format(template, arg1, arg2));
+        }
+    }
+
+    default void error(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isErrorEnabled()) {
+            error(MessageFormatter.format(template, arg1, arg2));
+        }
+    }
+
+    default void error(final CharSequence template, final Throwable t, final long arg) {
+        if (isErrorEnabled()) {
+            error(MessageFormatter.format(template, arg), t);
+        }
+    }
+
+    default void error(final CharSequence template, final Throwable t, final CharSequence arg) {
+        if (isErrorEnabled()) {
+            error(MessageFormatter.format(template, arg), t);
+        }
+    }
+
+    default void error(final CharSequence template, final Throwable t, final CharSequence arg1, final long arg2) {
+        if (isErrorEnabled()) {
+            error(MessageFormatter.format(template, arg1, arg2), t);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,579 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import fir.needle.joint.io.ByteBufferArea;
+import fir.needle.joint.io.CharSequenceToCharArea;
+import fir.needle.joint.io.Utf8CharAppendable;
+import fir.needle.joint.lang.Closeable;
+import fir.needle.joint.lang.CompletableResultFuture;
+import fir.needle.joint.lang.ListenableFuture;
+import fir.needle.joint.lang.VoidResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logger which appends UTF-8 lines into memory-mapped segments of log files.
+ * <p>
+ * A writer claims space for its line by an atomic increment of the position cursor of the current segment, so
+ * threads do not lock each other while logging. When a line does not fit into the segment or the segment is
+ * older than the roll interval, the segment is sealed and the next one becomes current. The next segment is
+ * mapped in advance by a background thread, which also truncates the files of sealed segments to their actual
+ * length once all the writers are done with them.
+ * <p>
+ * A segment is mapped outside of the lock which switches segments, and by one thread at a time. If the next
+ * segment is not mapped in advance, the writer which rolls maps it, and the other writers which overflow the
+ * same segment meanwhile yield until it becomes current.
+ * <p>
+ * Segments are named {@code <prefix>-<index>.log}, numbering continues after the highest index found in the
+ * directory and existing files are never overwritten. Lines longer than the segment size are dropped and
+ * counted.
+ * <p>
+ * A sealed file is truncated while its segment is still mapped, as a mapping can not be released explicitly
+ * on Java 8. This works on Linux and other Unix systems; where the file system refuses to truncate a mapped
+ * file, e.g. on Windows, the file keeps the segment size and its tail is filled with zeros.
+ */
+public class MappedFileLogger implements Logger, Closeable {
+    private static final int ERROR_LEVEL = 0;
+    private static final int INFO_LEVEL = 1;
+    private static final int TRACE_LEVEL = 2;
+
+    private static final int NOT_STARTED = 0;
+    private static final int RUNNING = 1;
+    private static final int CLOSING = 2;
+    private static final int CLOSED = 3;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final long rollIntervalMillis;
+    private final int level;
+    private final ThreadFactory threadFactory;
+    private final Object rollLock = new Object();
+    private final Queue<Segment> sealedSegments = new ConcurrentLinkedQueue<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicInteger state = new AtomicInteger(NOT_STARTED);
+    private final CompletableResultFuture<VoidResult> closeFuture = new CompletableResultFuture<>();
+    private final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(Encoder::new);
+
+    private volatile Segment current;
+    private Segment next;
+    private boolean mapping;
+    private int nextIndex;
+    private volatile Thread thread;
+
+    /**
+     * @param directory     directory of the log files
+     * @param prefix        prefix of the log file names
+     * @param segmentSize   size of a log file in bytes
+     * @param rollInterval  max age of a log file, not limited if not positive
+     * @param unit          unit of the roll interval
+     * @param level         0 to log errors only, 1 to log info too and 2 to log everything
+     * @param threadFactory creates the background thread
+     * @throws IOException if the first log file could not be mapped
+     */
+    MappedFileLogger(
+            final Path directory,
+            final String prefix,
+            final int segmentSize,
+            final long rollInterval,
+            final TimeUnit unit,
+            final int level,
+            final ThreadFactory threadFactory) throws IOException {
+
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException("Segment size should be > 0");
+        }
+
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.rollIntervalMillis = rollInterval > 0 ? unit.toMillis(rollInterval) : Long.MAX_VALUE;
+        this.level = level;
+        this.threadFactory = threadFactory;
+        this.nextIndex = highestIndex(directory, prefix) + 1;
+        this.current = mapSegment();
+    }
+
+    public static MappedFileLogger error(
+            final Path directory,
+            final String prefix,
+            final int segmentSize,
+            final long rollInterval,
+            final TimeUnit unit) throws IOException {
+
+        return new MappedFileLogger(directory, prefix, segmentSize, rollInterval, unit, ERROR_LEVEL, Thread::new);
+    }
+
+    public static MappedFileLogger info(
+            final Path directory,
+            final String prefix,
+            final int segmentSize,
+            final long rollInterval,
+            final TimeUnit unit) throws IOException {
+
+        return new MappedFileLogger(directory, prefix, segmentSize, rollInterval, unit, INFO_LEVEL, Thread::new);
+    }
+
+    public static MappedFileLogger trace(
+            final Path directory,
+            final String prefix,
+            final int segmentSize,
+            final long rollInterval,
+            final TimeUnit unit) throws IOException {
+
+        return new MappedFileLogger(directory, prefix, segmentSize, rollInterval, unit, TRACE_LEVEL, Thread::new);
+    }
+
+    /**
+     * Starts the background thread which maps the next segments in advance, rolls segments by time and
+     * truncates the sealed ones. Without it, segments are mapped by the writers when they roll.
+     */
+    public void start() {
+        if (!state.compareAndSet(NOT_STARTED, RUNNING)) {
+            throw new IllegalStateException("Logger has been started already");
+        }
+
+        final Thread backgroundThread = threadFactory.newThread(this::run);
+        backgroundThread.setDaemon(true);
+        thread = backgroundThread;
+        backgroundThread.start();
+    }
+
+    /**
+     * @return number of lines dropped because they are longer than the segment size or the logger is closed
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return level >= INFO_LEVEL;
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return level >= TRACE_LEVEL;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return level >= ERROR_LEVEL;
+    }
+
+    @Override
+    public void info(final CharSequence message) {
+        if (isInfoEnabled()) {
+            write("INFO", message, null);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence message) {
+        if (isTraceEnabled()) {
+            write("TRACE", message, null);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence message, final Throwable t) {
+        if (isTraceEnabled()) {
+            write("TRACE", message, t);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence message) {
+        if (isErrorEnabled()) {
+            write("ERROR", message, null);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence message, final Throwable t) {
+        if (isErrorEnabled()) {
+            write("ERROR", message, t);
+        }
+    }
+
+    @Override
+    public ListenableFuture<VoidResult> closeAsync() {
+        if (state.compareAndSet(NOT_STARTED, CLOSED)) {
+            shutdown();
+        } else if (state.compareAndSet(RUNNING, CLOSING)) {
+            LockSupport.unpark(thread);
+        }
+
+        return closeFuture;
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeAsync().sync();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(final String levelName, final CharSequence message, final Throwable t) {
+        final Encoder encoder = encoders.get();
+        final int length = encoder.encode(System.currentTimeMillis(), levelName, message, t);
+
+        if (length > segmentSize || state.get() >= CLOSING) {
+            dropped.incrementAndGet();
+            return;
+        }
+
+        while (true) {
+            final Segment segment = current;
+            final long position = segment.cursor.getAndAdd(length);
+
+            if (position + length <= segmentSize) {
+                encoder.writeTo(segment, (int) position);
+                segment.written.addAndGet(length);
+                return;
+            }
+
+            segment.seal(position);
+            if (state.get() >= CLOSING) {
+                dropped.incrementAndGet();
+                return;
+            }
+
+            try {
+                roll(segment);
+            } catch (final IOException e) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void roll(final Segment full) throws IOException {
+        final boolean mapCurrent;
+        synchronized (rollLock) {
+            if (current != full || state.get() == CLOSED) {
+                return;
+            }
+
+            if (next != null) {
+                replaceCurrent(full, next);
+                next = null;
+                mapCurrent = false;
+            } else {
+                mapCurrent = !mapping;
+                mapping = true;
+            }
+        }
+
+        if (mapCurrent) {
+            install(mapReserved(), full);
+        } else if (current == full) {
+            // another thread maps the segment
+            Thread.yield();
+        }
+
+        unparkBackgroundThread();
+    }
+
+    /**
+     * Maps a segment after the caller has set the mapping flag, the flag is cleared if mapping fails.
+     *
+     * @return segment mapped
+     * @throws IOException if the file could not be mapped
+     */
+    private Segment mapReserved() throws IOException {
+        try {
+            return mapSegment();
+        } catch (final IOException e) {
+            synchronized (rollLock) {
+                mapping = false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Makes the mapped segment current if the full one is still current or keeps it as the next one, and
+     * discards it if it is not needed anymore. Clears the mapping flag.
+     *
+     * @param mapped segment mapped
+     * @param full   segment to be replaced, or {@code null} if the segment is mapped in advance
+     */
+    private void install(final Segment mapped, final Segment full) {
+        synchronized (rollLock) {
+            mapping = false;
+
+            if (state.get() != CLOSED) {
+                if (full != null && current == full) {
+                    replaceCurrent(full, mapped);
+                    return;
+                }
+
+                if (next == null) {
+                    next = mapped;
+                    return;
+                }
+            }
+        }
+
+        mapped.discard();
+    }
+
+    private void replaceCurrent(final Segment full, final Segment rolled) {
+        current = rolled;
+        full.seal(full.cursor.getAndAdd(segmentSize + 1L));
+        sealedSegments.add(full);
+    }
+
+    private void unparkBackgroundThread() {
+        final Thread backgroundThread = thread;
+        if (backgroundThread != null) {
+            LockSupport.unpark(backgroundThread);
+        }
+    }
+
+    private static int highestIndex(final Path directory, final String prefix) throws IOException {
+        int highest = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "-*.log")) {
+            for (final Path file : files) {
+                final String name = file.getFileName().toString();
+                final String index = name.substring(prefix.length() + 1, name.length() - ".log".length());
+                try {
+                    highest = Math.max(highest, Integer.parseInt(index));
+                } catch (final NumberFormatException e) {
+                    // not a segment of this logger
+                }
+            }
+        }
+
+        return highest;
+    }
+
+    private Segment mapSegment() throws IOException {
+        FileChannel channel = null;
+        Path path = null;
+        while (channel == null) {
+            path = directory.resolve(prefix + '-' + nextIndex++ + ".log");
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+            } catch (final FileAlreadyExistsException e) {
+                // created by another logger meanwhile, the next index is tried
+            }
+        }
+
+        try {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            final long now = System.currentTimeMillis();
+            return new Segment(path, channel, buffer,
+                    rollIntervalMillis == Long.MAX_VALUE ? Long.MAX_VALUE : now + rollIntervalMillis);
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void run() {
+        try {
+            while (state.get() == RUNNING) {
+                try {
+                    final boolean mapNext;
+                    synchronized (rollLock) {
+                        mapNext = next == null && !mapping;
+                        mapping |= mapNext;
+                    }
+
+                    if (mapNext) {
+                        install(mapReserved(), null);
+                    }
+
+                    final Segment segment = current;
+                    if (System.currentTimeMillis() >= segment.deadline) {
+                        roll(segment);
+                    }
+                } catch (final IOException e) {
+                    // the writers map segments themselves if mapping in advance fails
+                }
+
+                retireSealedSegments(false);
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void shutdown() {
+        state.set(CLOSED);
+
+        synchronized (rollLock) {
+            final Segment last = current;
+            last.seal(last.cursor.getAndAdd(segmentSize + 1L));
+            sealedSegments.add(last);
+
+            if (next != null) {
+                next.seal(next.cursor.getAndAdd(segmentSize + 1L));
+                sealedSegments.add(next);
+                next = null;
+            }
+        }
+
+        retireSealedSegments(true);
+        closeFuture.complete(VoidResult.NO_ERROR_RESULT);
+    }
+
+    private void retireSealedSegments(final boolean wait) {
+        Segment segment;
+        while ((segment = sealedSegments.peek()) != null) {
+            if (!segment.isComplete()) {
+                if (!wait) {
+                    return;
+                }
+
+                Thread.yield();
+                continue;
+            }
+
+            sealedSegments.poll();
+            segment.retire();
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long deadline;
+        private final AtomicLong cursor = new AtomicLong();
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong sealedAt = new AtomicLong(Long.MAX_VALUE);
+
+        Segment(final Path path, final FileChannel channel, final MappedByteBuffer buffer, final long deadline) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Records the position of a claim which does not fit, all the claims before it fit.
+         *
+         * @param position position of the claim
+         */
+        void seal(final long position) {
+            sealedAt.accumulateAndGet(position, Math::min);
+        }
+
+        /**
+         * @return {@code true} if the segment is sealed and all the writers have finished
+         */
+        boolean isComplete() {
+            return written.get() >= Math.min(sealedAt.get(), buffer.capacity());
+        }
+
+        void retire() {
+            try {
+                buffer.force();
+                channel.truncate(written.get());
+                channel.close();
+            } catch (final IOException e) {
+                // the file keeps its mapped size, the tail is filled with zeros
+            }
+        }
+
+        /**
+         * Removes the file of a segment which has never been written.
+         */
+        void discard() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (final IOException e) {
+                // the unused file is left in the directory
+            }
+        }
+    }
+
+    /**
+     * Formats a line into a builder of the thread and copies it into a segment as UTF-8.
+     */
+    private static final class Encoder {
+        private final StringBuilder line = new StringBuilder(256);
+        private final CharSequenceToCharArea chars = new CharSequenceToCharArea(line);
+        private final ByteBufferArea target = new ByteBufferArea();
+        private final Utf8CharAppendable utf8 = new Utf8CharAppendable(target);
+        private Segment segment;
+
+        /**
+         * @param timestamp epoch millis
+         * @param levelName name of the level
+         * @param message   message to log
+         * @param t         throwable to log or {@code null}
+         * @return length of the line in bytes
+         */
+        int encode(final long timestamp, final String levelName, final CharSequence message, final Throwable t) {
+            line.setLength(0);
+            line.append(timestamp).append(' ').append(levelName).append(' ').append(message);
+
+            if (t != null) {
+                StackTraceRenderer.shared().render(t, line.append(' '));
+            }
+
+            line.append('\n');
+            return (int) Utf8CharAppendable.encodedLength(chars, 0, line.length());
+        }
+
+        void writeTo(final Segment destination, final int position) {
+            if (segment != destination) {
+                segment = destination;
+                target.wrap(destination.buffer.duplicate());
+            }
+
+            final ByteBuffer buffer = target.buffer();
+            buffer.position(position);
+            utf8.appendArea(chars, 0, line.length());
+            utf8.flush();
+        }
+    }
+}
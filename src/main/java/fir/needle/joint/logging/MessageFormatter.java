@@ -0,0 +1,166 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+/**
+ * Formats message templates where every {@code {}} is replaced by the next argument. Placeholders without
+ * arguments are kept as they are, arguments without placeholders are ignored.
+ * <p>
+ * The {@code format} methods append into a builder which belongs to the current thread and is reused by
+ * the next call, so they do not allocate as long as the builder has enough capacity. A call never appends into
+ * the builder which it gets as the template or an argument, so a logger can format a message which is itself
+ * the result of a {@code format} call.
+ */
+public final class MessageFormatter {
+    /**
+     * One more than the char sequences a {@code format} call takes, so one of them is never an input.
+     */
+    private static final int BUILDERS_PER_THREAD = 4;
+
+    private static final ThreadLocal<StringBuilder[]> BUILDERS =
+            ThreadLocal.withInitial(() -> new StringBuilder[BUILDERS_PER_THREAD]);
+
+    private MessageFormatter() {
+
+    }
+
+    public static StringBuilder format(final CharSequence template, final long arg) {
+        final StringBuilder builder = builder(template, null, null);
+        final int next = appendUntilArgument(builder, template, 0);
+        if (next >= 0) {
+            appendRest(builder.append(arg), template, next);
+        }
+
+        return builder;
+    }
+
+    public static StringBuilder format(final CharSequence template, final CharSequence arg) {
+        final StringBuilder builder = builder(template, arg, null);
+        final int next = appendUntilArgument(builder, template, 0);
+        if (next >= 0) {
+            appendRest(builder.append(arg), template, next);
+        }
+
+        return builder;
+    }
+
+    public static StringBuilder format(final CharSequence template, final CharSequence arg1, final long arg2) {
+        final StringBuilder builder = builder(template, arg1, null);
+        int next = appendUntilArgument(builder, template, 0);
+        if (next >= 0) {
+            next = appendUntilArgument(builder.append(arg1), template, next);
+            if (next >= 0) {
+                appendRest(builder.append(arg2), template, next);
+            }
+        }
+
+        return builder;
+    }
+
+    public static StringBuilder format(final CharSequence template, final long arg1, final long arg2) {
+        final StringBuilder builder = builder(template, null, null);
+        int next = appendUntilArgument(builder, template, 0);
+        if (next >= 0) {
+            next = appendUntilArgument(builder.append(arg1), template, next);
+            if (next >= 0) {
+                appendRest(builder.append(arg2), template, next);
+            }
+        }
+
+        return builder;
+    }
+
+    public static StringBuilder format(
+            final CharSequence template,
+            final CharSequence arg1,
+            final CharSequence arg2) {
+
+        final StringBuilder builder = builder(template, arg1, arg2);
+        int next = appendUntilArgument(builder, template, 0);
+        if (next >= 0) {
+            next = appendUntilArgument(builder.append(arg1), template, next);
+            if (next >= 0) {
+                appendRest(builder.append(arg2), template, next);
+            }
+        }
+
+        return builder;
+    }
+
+    /**
+     * Appends the template chars from the index up to the next placeholder.
+     *
+     * @param builder  to append to
+     * @param template message template
+     * @param from     index of the first char to append
+     * @return index after the placeholder, or -1 if there is no placeholder and the rest of the template
+     * has been appended
+     */
+    public static int appendUntilArgument(final StringBuilder builder, final CharSequence template, final int from) {
+        final int length = template.length();
+
+        for (int i = from; i < length; i++) {
+            final char c = template.charAt(i);
+            if (c == '{' && i + 1 < length && template.charAt(i + 1) == '}') {
+                return i + 2;
+            }
+
+            builder.append(c);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Appends the template chars from the index to the end, including placeholders.
+     *
+     * @param builder  to append to
+     * @param template message template
+     * @param from     index of the first char to append
+     */
+    public static void appendRest(final StringBuilder builder, final CharSequence template, final int from) {
+        builder.append(template, from, template.length());
+    }
+
+    private static StringBuilder builder(
+            final CharSequence input1,
+            final CharSequence input2,
+            final CharSequence input3) {
+
+        final StringBuilder[] builders = BUILDERS.get();
+
+        for (int i = 0; ; i++) {
+            StringBuilder builder = builders[i];
+            if (builder == null) {
+                builder = new StringBuilder(256);
+                builders[i] = builder;
+            }
+
+            if (builder != input1 && builder != input2 && builder != input3) {
+                builder.setLength(0);
+                return builder;
+            }
+        }
+    }
+}
@@ -0,0 +1,420 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Logger which limits the rate of similar messages passed to the delegate logger.
+ * <p>
+ * Messages are similar if they have the same message or template, which is expected to be a constant string
+ * identifying the call site. Keys are compared by identity and a string becomes a key once the same instance is
+ * seen for the second time between two ticks, so strings built per message never take a place in the table of
+ * keys, which has a fixed size. Char sequences other than strings, the first message of a key and the keys which
+ * do not fit into the table are counted together as dynamic messages. Every key has a bucket of
+ * permits which is refilled by {@link #tick()}, e.g. called periodically by an {@link fir.needle.joint.lang.EventLoop}.
+ * When the permits are exhausted, only every N-th message is passed, the rest are suppressed at the cost of
+ * a single atomic increment and template arguments are not formatted. {@link #tick()} logs how many similar
+ * messages have been suppressed since the previous tick.
+ */
+public class RateLimitedLogger implements Logger {
+    private static final int ERROR_LEVEL = 0;
+    private static final int INFO_LEVEL = 1;
+    private static final int TRACE_LEVEL = 2;
+
+    private static final int UNKNOWN_LEVEL = -1;
+
+    private static final String DYNAMIC_KEY = "<dynamic messages>";
+    private static final int DEFAULT_MAX_SITES = 256;
+    private static final int MAX_PROBES = 4;
+
+    private final Logger delegate;
+    private final long permitsPerTick;
+    private final long sampleRate;
+    private final AtomicReferenceArray<Site> sites;
+    private final AtomicReferenceArray<String> candidates;
+    private final AtomicIntegerArray candidatesPassed;
+    private final int mask;
+    private final Site dynamicSite = new Site(DYNAMIC_KEY, UNKNOWN_LEVEL);
+
+    /**
+     * @param delegate       logger to pass the permitted messages to
+     * @param permitsPerTick number of similar messages passed between two ticks
+     * @param sampleRate     when the permits are exhausted every N-th message is passed, none if not positive
+     */
+    public RateLimitedLogger(final Logger delegate, final long permitsPerTick, final long sampleRate) {
+        this(delegate, permitsPerTick, sampleRate, DEFAULT_MAX_SITES);
+    }
+
+    /**
+     * @param delegate       logger to pass the permitted messages to
+     * @param permitsPerTick number of similar messages passed between two ticks
+     * @param sampleRate     when the permits are exhausted every N-th message is passed, none if not positive
+     * @param maxSites       size of the key table, a power of two
+     */
+    public RateLimitedLogger(
+            final Logger delegate,
+            final long permitsPerTick,
+            final long sampleRate,
+            final int maxSites) {
+
+        if (maxSites <= 0 || Integer.bitCount(maxSites) != 1) {
+            throw new IllegalArgumentException("Max sites should be a power of two");
+        }
+
+        this.delegate = delegate;
+        this.permitsPerTick = permitsPerTick;
+        this.sampleRate = sampleRate;
+        this.sites = new AtomicReferenceArray<>(maxSites);
+        this.candidates = new AtomicReferenceArray<>(maxSites);
+        this.candidatesPassed = new AtomicIntegerArray(maxSites);
+        this.mask = maxSites - 1;
+    }
+
+    /**
+     * Refills the permits of all the keys, forgets the strings seen once and logs the numbers of suppressed
+     * messages.
+     *
+     * @return number of keys which had suppressed messages
+     */
+    public int tick() {
+        int suppressedKeys = 0;
+
+        for (int i = 0; i < sites.length(); i++) {
+            candidates.set(i, null);
+
+            final Site site = sites.get(i);
+            if (site != null && reportSuppressed(site)) {
+                suppressedKeys++;
+            }
+        }
+
+        return reportSuppressed(dynamicSite) ? suppressedKeys + 1 : suppressedKeys;
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return delegate.isInfoEnabled();
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return delegate.isTraceEnabled();
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return delegate.isErrorEnabled();
+    }
+
+    @Override
+    public void info(final CharSequence message) {
+        if (isInfoEnabled() && permit(message, INFO_LEVEL)) {
+            delegate.info(message);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence message) {
+        if (isTraceEnabled() && permit(message, TRACE_LEVEL)) {
+            delegate.trace(message);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence message, final Throwable t) {
+        if (isTraceEnabled() && permit(message, TRACE_LEVEL)) {
+            delegate.trace(message, t);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence message) {
+        if (isErrorEnabled() && permit(message, ERROR_LEVEL)) {
+            delegate.error(message);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence message, final Throwable t) {
+        if (isErrorEnabled() && permit(message, ERROR_LEVEL)) {
+            delegate.error(message, t);
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final long arg) {
+        if (isInfoEnabled() && permit(template, INFO_LEVEL)) {
+            delegate.info(template, arg);
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final CharSequence arg) {
+        if (isInfoEnabled() && permit(template, INFO_LEVEL)) {
+            delegate.info(template, arg);
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isInfoEnabled() && permit(template, INFO_LEVEL)) {
+            delegate.info(template, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final long arg1, final long arg2) {
+        if (isInfoEnabled() && permit(template, INFO_LEVEL)) {
+            delegate.info(template, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void info(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isInfoEnabled() && permit(template, INFO_LEVEL)) {
+            delegate.info(template, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final long arg) {
+        if (isTraceEnabled() && permit(template, TRACE_LEVEL)) {
+            delegate.trace(template, arg);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final CharSequence arg) {
+        if (isTraceEnabled() && permit(template, TRACE_LEVEL)) {
+            delegate.trace(template, arg);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isTraceEnabled() && permit(template, TRACE_LEVEL)) {
+            delegate.trace(template, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final long arg1, final long arg2) {
+        if (isTraceEnabled() && permit(template, TRACE_LEVEL)) {
+            delegate.trace(template, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isTraceEnabled() && permit(template, TRACE_LEVEL)) {
+            delegate.trace(template, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final Throwable t, final long arg) {
+        if (isTraceEnabled() && permit(template, TRACE_LEVEL)) {
+            delegate.trace(template, t, arg);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final Throwable t, final CharSequence arg) {
+        if (isTraceEnabled() && permit(template, TRACE_LEVEL)) {
+            delegate.trace(template, t, arg);
+        }
+    }
+
+    @Override
+    public void trace(final CharSequence template, final Throwable t, final CharSequence arg1, final long arg2) {
+        if (isTraceEnabled() && permit(template, TRACE_LEVEL)) {
+            delegate.trace(template, t, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final long arg) {
+        if (isErrorEnabled() && permit(template, ERROR_LEVEL)) {
+            delegate.error(template, arg);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final CharSequence arg) {
+        if (isErrorEnabled() && permit(template, ERROR_LEVEL)) {
+            delegate.error(template, arg);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final CharSequence arg1, final long arg2) {
+        if (isErrorEnabled() && permit(template, ERROR_LEVEL)) {
+            delegate.error(template, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final long arg1, final long arg2) {
+        if (isErrorEnabled() && permit(template, ERROR_LEVEL)) {
+            delegate.error(template, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final CharSequence arg1, final CharSequence arg2) {
+        if (isErrorEnabled() && permit(template, ERROR_LEVEL)) {
+            delegate.error(template, arg1, arg2);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final Throwable t, final long arg) {
+        if (isErrorEnabled() && permit(template, ERROR_LEVEL)) {
+            delegate.error(template, t, arg);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final Throwable t, final CharSequence arg) {
+        if (isErrorEnabled() && permit(template, ERROR_LEVEL)) {
+            delegate.error(template, t, arg);
+        }
+    }
+
+    @Override
+    public void error(final CharSequence template, final Throwable t, final CharSequence arg1, final long arg2) {
+        if (isErrorEnabled() && permit(template, ERROR_LEVEL)) {
+            delegate.error(template, t, arg1, arg2);
+        }
+    }
+
+    private boolean reportSuppressed(final Site site) {
+        final long count = site.count.getAndSet(0);
+        final long passed = site.passed.getAndSet(0);
+        final long suppressed = count - passed;
+
+        if (suppressed <= 0) {
+            return false;
+        }
+
+        if (site.level == ERROR_LEVEL) {
+            delegate.error("{}: suppressed {} similar messages", site.key, suppressed);
+        } else if (site.level == INFO_LEVEL) {
+            delegate.info("{}: suppressed {} similar messages", site.key, suppressed);
+        } else {
+            delegate.trace("{}: suppressed {} similar messages", site.key, suppressed);
+        }
+
+        return true;
+    }
+
+    private boolean permit(final CharSequence key, final int level) {
+        if (!(key instanceof String)) {
+            return permit(dynamicSite, level);
+        }
+
+        final int start = System.identityHashCode(key) & mask;
+        final Site site = site((String) key, start, level);
+        if (site != null) {
+            return permit(site, level);
+        }
+
+        final boolean permitted = permit(dynamicSite, level);
+        candidatesPassed.set(start, permitted ? 1 : 0);
+        candidates.set(start, (String) key);
+        return permitted;
+    }
+
+    private boolean permit(final Site site, final int level) {
+        if (site.level == UNKNOWN_LEVEL) {
+            site.level = level;
+        }
+
+        final long count = site.count.incrementAndGet();
+        if (count <= permitsPerTick || sampleRate > 0 && count % sampleRate == 0) {
+            site.passed.incrementAndGet();
+            site.level = level;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param key   message or template
+     * @param start index of the key in the table
+     * @param level level of the message
+     * @return site of the key, {@code null} if the key is seen for the first time
+     */
+    private Site site(final String key, final int start, final int level) {
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            final Site site = sites.get((start + probe) & mask);
+            if (site != null && site.key == key) {
+                return site;
+            }
+        }
+
+        if (candidates.get(start) != key) {
+            return null;
+        }
+
+        final boolean firstPassed = candidatesPassed.get(start) != 0;
+        if (!candidates.compareAndSet(start, key, null)) {
+            return dynamicSite;
+        }
+
+        // the first message moves from the dynamic messages to the key
+        final Site created = new Site(key, level);
+        created.count.set(1);
+        created.passed.set(firstPassed ? 1 : 0);
+
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            if (sites.compareAndSet((start + probe) & mask, null, created)) {
+                dynamicSite.count.decrementAndGet();
+                if (firstPassed) {
+                    dynamicSite.passed.decrementAndGet();
+                }
+
+                return created;
+            }
+        }
+
+        return dynamicSite;
+    }
+
+    private static final class Site {
+        private final String key;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong passed = new AtomicLong();
+        private volatile int level;
+
+        Site(final String key, final int level) {
+            this.key = key;
+            this.level = level;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import java.util.Arrays;
+
+/**
+ * Renders throwables in the format of {@link Throwable#printStackTrace()} straight into a builder, without
+ * building intermediate strings of every frame.
+ * <p>
+ * The rendered frames are cached in a direct-mapped cache by the class of the throwable and its frames, so
+ * rendering a throwable thrown from the same place again costs a lookup and a copy. The header with the message
+ * is rendered every time. Suppressed throwables are not rendered. This class is thread-safe.
+ */
+public final class StackTraceRenderer {
+    private static final int MAX_CAUSES = 32;
+    private static final StackTraceRenderer SHARED = new StackTraceRenderer(256);
+
+    private final Entry[] cache;
+    private final int mask;
+
+    /**
+     * @param cacheSize number of cached stack traces, power of 2
+     */
+    public StackTraceRenderer(final int cacheSize) {
+        if (cacheSize <= 0 || (cacheSize & (cacheSize - 1)) != 0) {
+            throw new IllegalArgumentException("Cache size should be a positive power of 2");
+        }
+
+        this.cache = new Entry[cacheSize];
+        this.mask = cacheSize - 1;
+    }
+
+    public static StackTraceRenderer shared() {
+        return SHARED;
+    }
+
+    /**
+     * Appends the throwable and its causes, every frame on a separate line.
+     *
+     * @param t       to be rendered
+     * @param builder to append to
+     * @return the builder
+     */
+    public StringBuilder render(final Throwable t, final StringBuilder builder) {
+        Throwable current = t;
+
+        for (int depth = 0; current != null && depth < MAX_CAUSES; depth++) {
+            if (depth > 0) {
+                builder.append("\nCaused by: ");
+            }
+
+            appendHeader(current, builder);
+            appendFrames(current, builder);
+
+            final Throwable cause = current.getCause();
+            current = cause != current ? cause : null;
+        }
+
+        return builder;
+    }
+
+    private void appendFrames(final Throwable t, final StringBuilder builder) {
+        final StackTraceElement[] frames = t.getStackTrace();
+        final Class<?> type = t.getClass();
+        final int hash = hash(type, frames);
+        final int index = hash & mask;
+
+        final Entry cached = cache[index];
+        if (cached != null && cached.hash == hash && cached.type == type && Arrays.equals(cached.frames, frames)) {
+            builder.append(cached.rendered);
+            return;
+        }
+
+        final int start = builder.length();
+        for (final StackTraceElement frame : frames) {
+            appendFrame(frame, builder.append("\n\tat "));
+        }
+
+        cache[index] = new Entry(hash, type, frames, builder.substring(start));
+    }
+
+    private static void appendHeader(final Throwable t, final StringBuilder builder) {
+        builder.append(t.getClass().getName());
+
+        final String message = t.getLocalizedMessage();
+        if (message != null) {
+            builder.append(": ").append(message);
+        }
+    }
+
+    private static void appendFrame(final StackTraceElement frame, final StringBuilder builder) {
+        builder.append(frame.getClassName()).append('.').append(frame.getMethodName());
+
+        if (frame.isNativeMethod()) {
+            builder.append("(Native Method)");
+        } else if (frame.getFileName() == null) {
+            builder.append("(Unknown Source)");
+        } else {
+            builder.append('(').append(frame.getFileName());
+            if (frame.getLineNumber() >= 0) {
+                builder.append(':').append(frame.getLineNumber());
+            }
+            builder.append(')');
+        }
+    }
+
+    private static int hash(final Class<?> type, final StackTraceElement[] frames) {
+        int hash = type.hashCode();
+        for (final StackTraceElement frame : frames) {
+            hash = 31 * hash + frame.hashCode();
+        }
+
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Immutable, so it is safely published through the cache array without synchronization.
+     */
+    private static final class Entry {
+        private final int hash;
+        private final Class<?> type;
+        private final StackTraceElement[] frames;
+        private final String rendered;
+
+        Entry(final int hash, final Class<?> type, final StackTraceElement[] frames, final String rendered) {
+            this.hash = hash;
+            this.type = type;
+            this.frames = frames;
+            this.rendered = rendered;
+        }
+    }
+}
@@ -23,14 +23,25 @@
  */
 package fir.needle.joint.logging;
 
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 
+/**
+ * Logger which prints to {@link System#out} and {@link System#err}, throwables in the format of
+ * {@link Throwable#printStackTrace()}. Messages are encoded in the default charset by chunks into buffers of
+ * the current thread, so printing does not build a string of the message.
+ */
 public class SystemLogger implements Logger {
     private static final int ERROR_LEVEL = 0;
     private static final int INFO_LEVEL = 1;
     private static final int TRACE_LEVEL = 2;
 
+    private static final ThreadLocal<Output> OUTPUTS = ThreadLocal.withInitial(Output::new);
+
     private final int level;
 
     SystemLogger(final int level) {
@@ -70,7 +81,7 @@ public class SystemLogger implements Logger {
             return;
         }
 
-        System.out.println(message);
+        OUTPUTS.get().println(System.out, message);
     }
 
     @Override
@@ -79,12 +90,16 @@ public class SystemLogger implements Logger {
             return;
         }
 
-        System.out.println(message);
+        OUTPUTS.get().println(System.out, message);
     }
 
     @Override
     public void trace(final CharSequence message, final Throwable t) {
-        System.out.println(message.toString() + ' ' + t + '\n' + getStackTrace(t));
+        if (!isTraceEnabled()) {
+            return;
+        }
+
+        OUTPUTS.get().println(System.out, message, t);
     }
 
     @Override
@@ -93,17 +108,82 @@ public class SystemLogger implements Logger {
             return;
         }
 
-        System.err.println(message);
+        OUTPUTS.get().println(System.err, message);
     }
 
     @Override
     public void error(final CharSequence message, final Throwable t) {
-        System.err.println(message.toString() + ' ' + t + '\n' + getStackTrace(t));
+        if (!isErrorEnabled()) {
+            return;
+        }
+
+        OUTPUTS.get().println(System.err, message, t);
     }
 
-    private String getStackTrace(final Throwable e) {
-        return Stream.of(e.getStackTrace())
-            .map(Object::toString)
-            .collect(Collectors.joining("\n"));
+    /**
+     * Buffers of a thread which encode lines and write them to a stream.
+     */
+    private static final class Output {
+        private static final int CHUNK_SIZE = 1024;
+        private static final String LINE_SEPARATOR = System.lineSeparator();
+
+        private final StringBuilder builder = new StringBuilder(CHUNK_SIZE);
+        private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final CharBuffer chars = CharBuffer.allocate(CHUNK_SIZE);
+        private final ByteBuffer bytes = ByteBuffer.allocate((int) Math.ceil(CHUNK_SIZE * encoder.maxBytesPerChar()));
+
+        void println(final PrintStream stream, final CharSequence message, final Throwable t) {
+            builder.setLength(0);
+            println(stream, StackTraceRenderer.shared().render(t, builder.append(message).append(' ')));
+        }
+
+        void println(final PrintStream stream, final CharSequence message) {
+            encoder.reset();
+            chars.clear();
+
+            // the stream locks itself while printing, so the chunks of a line are not mixed with other lines
+            synchronized (stream) {
+                encode(stream, message, false);
+                encode(stream, LINE_SEPARATOR, true);
+            }
+        }
+
+        private void encode(final PrintStream stream, final CharSequence text, final boolean endOfInput) {
+            final int length = text.length();
+            int index = 0;
+
+            while (true) {
+                while (index < length && chars.hasRemaining()) {
+                    chars.put(text.charAt(index++));
+                }
+
+                final boolean end = endOfInput && index == length;
+                chars.flip();
+                while (encoder.encode(chars, bytes, end).isOverflow()) {
+                    write(stream);
+                }
+                // a high surrogate at the end of a chunk is kept until its low surrogate is put
+                chars.compact();
+
+                if (index == length) {
+                    break;
+                }
+            }
+
+            if (endOfInput) {
+                while (encoder.flush(bytes).isOverflow()) {
+                    write(stream);
+                }
+                write(stream);
+            }
+        }
+
+        private void write(final PrintStream stream) {
+            bytes.flip();
+            stream.write(bytes.array(), 0, bytes.limit());
+            bytes.clear();
+        }
     }
 }
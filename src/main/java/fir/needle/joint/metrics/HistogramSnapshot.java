@@ -0,0 +1,82 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.metrics;
+
+/**
+ * Reusable snapshot of the counts of a {@link LatencyHistogram}. Values are reported as the highest value of
+ * their bucket.
+ */
+public class HistogramSnapshot {
+    final long[] counts;
+
+    private final LatencyHistogram histogram;
+    private long totalCount;
+    private long sum;
+
+    HistogramSnapshot(final LatencyHistogram histogram) {
+        this.histogram = histogram;
+        this.counts = new long[histogram.bucketCount()];
+    }
+
+    public long totalCount() {
+        return totalCount;
+    }
+
+    public double mean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    public long max() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return histogram.highestValue(i);
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * @param percentile from 0 to 100
+     * @return the value which the given percentage of values are less than or equal to
+     */
+    public long valueAtPercentile(final double percentile) {
+        final long target = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long count = 0;
+
+        for (int i = 0; i < counts.length; i++) {
+            count += counts[i];
+            if (count >= target) {
+                return histogram.highestValue(i);
+            }
+        }
+
+        return 0;
+    }
+
+    void set(final long totalCount, final long sum) {
+        this.totalCount = totalCount;
+        this.sum = sum;
+    }
+}
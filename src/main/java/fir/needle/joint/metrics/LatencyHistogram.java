@@ -0,0 +1,132 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory histogram of non-negative values, e.g. latencies in nanoseconds, with log-linear buckets.
+ * <p>
+ * Values below {@code 2^precisionBits} are counted exactly, every greater power of 2 range is split into
+ * {@code 2^(precisionBits - 1)} buckets, so the relative error of a value is below {@code 2^(1 - precisionBits)}.
+ * Values greater than the highest trackable value are counted in the last bucket.
+ * <p>
+ * Recording is wait-free and does not allocate, so it is safe to record from any number of threads on hot paths.
+ * Snapshots are taken by a single reporting thread with {@link #snapshotAndReset(HistogramSnapshot)}.
+ */
+public class LatencyHistogram {
+    private final int precisionBits;
+    private final int halfSubBucketCount;
+    private final long highestTrackableValue;
+    private final AtomicLongArray counts;
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * @param highestTrackableValue values above it are counted as it
+     * @param precisionBits         from 1 to 16, the number of buckets per power of 2 is {@code 2^(precisionBits - 1)}
+     */
+    public LatencyHistogram(final long highestTrackableValue, final int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 16) {
+            throw new IllegalArgumentException("Precision bits should be from 1 to 16");
+        }
+
+        if (highestTrackableValue < 1) {
+            throw new IllegalArgumentException("Highest trackable value should be > 0");
+        }
+
+        this.precisionBits = precisionBits;
+        this.halfSubBucketCount = 1 << (precisionBits - 1);
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new AtomicLongArray(index(highestTrackableValue) + 1);
+    }
+
+    /**
+     * @param value to be recorded, negative values are counted as 0
+     */
+    public void record(final long value) {
+        final long clamped = Math.min(Math.max(value, 0), highestTrackableValue);
+        counts.getAndIncrement(index(clamped));
+        sum.getAndAdd(clamped);
+    }
+
+    public int bucketCount() {
+        return counts.length();
+    }
+
+    public long highestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Moves the counts into the snapshot, the values recorded concurrently are counted either in this snapshot
+     * or in the next one.
+     *
+     * @param snapshot to be filled, it should be created for this histogram
+     * @return the snapshot
+     */
+    public HistogramSnapshot snapshotAndReset(final HistogramSnapshot snapshot) {
+        if (snapshot.counts.length != counts.length()) {
+            throw new IllegalArgumentException("Snapshot has " + snapshot.counts.length + " buckets, but " +
+                    counts.length() + " are expected");
+        }
+
+        long totalCount = 0;
+        for (int i = 0; i < snapshot.counts.length; i++) {
+            final long count = counts.getAndSet(i, 0);
+            snapshot.counts[i] = count;
+            totalCount += count;
+        }
+
+        snapshot.set(totalCount, sum.getAndSet(0));
+        return snapshot;
+    }
+
+    public HistogramSnapshot newSnapshot() {
+        return new HistogramSnapshot(this);
+    }
+
+    int index(final long value) {
+        if (value < 2L * halfSubBucketCount) {
+            return (int) value;
+        }
+
+        final int bucket = 64 - Long.numberOfLeadingZeros(value) - precisionBits;
+        return bucket * halfSubBucketCount + (int) (value >>> bucket);
+    }
+
+    /**
+     * @param index of a bucket
+     * @return the highest value counted in the bucket
+     */
+    long highestValue(final int index) {
+        if (index < 2 * halfSubBucketCount) {
+            return index;
+        }
+
+        final int bucket = index / halfSubBucketCount - 1;
+        final long subBucket = index - (long) bucket * halfSubBucketCount;
+        return Math.min(((subBucket + 1) << bucket) - 1, highestTrackableValue);
+    }
+}
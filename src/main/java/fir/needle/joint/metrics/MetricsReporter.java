@@ -0,0 +1,109 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.metrics;
+
+import fir.needle.joint.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Takes snapshots of the registered histograms and counters, resets them and logs their values at the info
+ * level, one line per metric. {@link #report()} is expected to be called periodically by a single thread, e.g.
+ * by a timer of an {@link fir.needle.joint.lang.EventLoop}; it does not allocate once all the metrics are
+ * registered.
+ */
+public class MetricsReporter {
+    private final Logger logger;
+    private final List<String> histogramNames = new ArrayList<>();
+    private final List<LatencyHistogram> histograms = new ArrayList<>();
+    private final List<HistogramSnapshot> snapshots = new ArrayList<>();
+    private final List<String> counterNames = new ArrayList<>();
+    private final List<StripedCounter> counters = new ArrayList<>();
+    private final StringBuilder line = new StringBuilder(256);
+
+    public MetricsReporter(final Logger logger) {
+        this.logger = logger;
+    }
+
+    public LatencyHistogram histogram(final String name, final long highestTrackableValue, final int precisionBits) {
+        final LatencyHistogram histogram = new LatencyHistogram(highestTrackableValue, precisionBits);
+        register(name, histogram);
+        return histogram;
+    }
+
+    public StripedCounter counter(final String name) {
+        final StripedCounter counter = new StripedCounter();
+        register(name, counter);
+        return counter;
+    }
+
+    public void register(final String name, final LatencyHistogram histogram) {
+        histogramNames.add(name);
+        histograms.add(histogram);
+        snapshots.add(histogram.newSnapshot());
+    }
+
+    public void register(final String name, final StripedCounter counter) {
+        counterNames.add(name);
+        counters.add(counter);
+    }
+
+    /**
+     * Resets all the metrics and logs them if the info level is enabled. The metrics are reset even if they are
+     * not logged, so a report always covers the time since the previous one.
+     */
+    public void report() {
+        final boolean enabled = logger.isInfoEnabled();
+
+        for (int i = 0; i < histograms.size(); i++) {
+            final HistogramSnapshot snapshot = histograms.get(i).snapshotAndReset(snapshots.get(i));
+            if (!enabled) {
+                continue;
+            }
+
+            line.setLength(0);
+            line.append(histogramNames.get(i))
+                    .append(" count=").append(snapshot.totalCount())
+                    .append(" mean=").append((long) snapshot.mean())
+                    .append(" p50=").append(snapshot.valueAtPercentile(50))
+                    .append(" p90=").append(snapshot.valueAtPercentile(90))
+                    .append(" p99=").append(snapshot.valueAtPercentile(99))
+                    .append(" p99.9=").append(snapshot.valueAtPercentile(99.9))
+                    .append(" max=").append(snapshot.max());
+            logger.info(line);
+        }
+
+        for (int i = 0; i < counters.size(); i++) {
+            final long count = counters.get(i).sumThenReset();
+            if (!enabled) {
+                continue;
+            }
+
+            line.setLength(0);
+            line.append(counterNames.get(i)).append(" count=").append(count);
+            logger.info(line);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counter which spreads increments of different threads over padded cells, so threads incrementing it
+ * concurrently do not contend on a single cache line. Updates are wait-free and do not allocate.
+ */
+public class StripedCounter {
+    /**
+     * Cells are 16 longs, i.e. two 64-byte cache lines, apart.
+     */
+    private static final int STRIDE_SHIFT = 4;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripes number of cells, rounded up to a power of 2
+     */
+    public StripedCounter(final int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes should be > 0");
+        }
+
+        final int cellCount = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.cells = new AtomicLongArray(cellCount << STRIDE_SHIFT);
+        this.mask = cellCount - 1;
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(final long delta) {
+        cells.getAndAdd(cell(), delta);
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += 1 << STRIDE_SHIFT) {
+            sum += cells.get(i);
+        }
+
+        return sum;
+    }
+
+    /**
+     * @return the sum, the increments made concurrently are counted either by this call or by the next one
+     */
+    public long sumThenReset() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += 1 << STRIDE_SHIFT) {
+            sum += cells.getAndSet(i, 0);
+        }
+
+        return sum;
+    }
+
+    private int cell() {
+        final long id = Thread.currentThread().getId();
+        return ((int) (id ^ (id >>> 32)) * 0x9E3779B9 >>> 16 & mask) << STRIDE_SHIFT;
+    }
+}
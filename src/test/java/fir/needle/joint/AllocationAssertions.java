@@ -0,0 +1,84 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Asserts that an action allocates no more than a budget in steady state. The action is warmed up first so that
+ * it is compiled and allocations eliminated by escape analysis are not counted, then the bytes allocated by the
+ * current thread are measured around a loop by {@code com.sun.management.ThreadMXBean}.
+ * <p>
+ * The assertion is skipped on JVMs which do not support measuring allocated bytes.
+ */
+public final class AllocationAssertions {
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    /**
+     * Bytes which the measurement itself may allocate, e.g. when the thread gets a new allocation buffer.
+     */
+    private static final long MEASUREMENT_TOLERANCE = 1024;
+
+    private AllocationAssertions() {
+
+    }
+
+    public static void assertAllocationFree(final Runnable action) {
+        assertAllocatesAtMost(0, action);
+    }
+
+    /**
+     * @param bytesPerIteration budget of a single run of the action
+     * @param action            to be measured
+     */
+    public static void assertAllocatesAtMost(final long bytesPerIteration, final Runnable action) {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean, "Allocated bytes are not measurable");
+
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported(), "Allocated bytes are not measurable");
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            action.run();
+        }
+
+        final long threadId = Thread.currentThread().getId();
+        final long start = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            action.run();
+        }
+        final long allocated = allocationBean.getThreadAllocatedBytes(threadId) - start;
+
+        final long budget = bytesPerIteration * MEASURED_ITERATIONS + MEASUREMENT_TOLERANCE;
+        assertTrue(allocated <= budget, () -> "Allocated " + allocated + " bytes in " + MEASURED_ITERATIONS +
+                " iterations, " + (double) allocated / MEASURED_ITERATIONS +
+                " bytes per iteration, but the budget is " + bytesPerIteration);
+    }
+}
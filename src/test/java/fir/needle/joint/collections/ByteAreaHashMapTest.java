@@ -0,0 +1,141 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.collections;
+
+import fir.needle.joint.colleclions.ByteAreaHashMap;
+import fir.needle.joint.io.ByteBufferArea;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ByteAreaHashMapTest {
+    private ByteAreaHashMap<String> map;
+
+    @BeforeEach
+    void setUp() {
+        map = new ByteAreaHashMap<>(2, 0.65f);
+    }
+
+    @Test
+    void testPutAndGetFromAnotherArea() {
+        put("Content-Type", "type");
+        put("Content-Length", "length");
+
+        final ByteBufferArea received = area("GET / Content-Length: 42");
+        assertEquals("length", map.get(received, 6, "Content-Length".length()));
+        assertNull(map.get(received, 6, "Content-".length()));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testPutReplacesValueOfExistingKey() {
+        assertNull(put("key", "first"));
+        assertEquals("first", put("key", "second"));
+
+        assertEquals("second", get("key"));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testEmptyKey() {
+        put("", "empty");
+
+        assertEquals("empty", get(""));
+        assertTrue(map.containsKey(area("x"), 0, 0));
+    }
+
+    @Test
+    void testManyKeysSurviveResizes() {
+        for (int i = 0; i < 10_000; i++) {
+            put("key-" + i, "value-" + i);
+        }
+
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("value-" + i, get("key-" + i));
+        }
+        assertNull(get("key-10000"));
+    }
+
+    @Test
+    void testRemoveKeepsOtherKeysReachable() {
+        for (int i = 0; i < 1_000; i++) {
+            put("key-" + i, "value-" + i);
+        }
+
+        for (int i = 0; i < 1_000; i += 2) {
+            final ByteBufferArea key = area("key-" + i);
+            assertEquals("value-" + i, map.remove(key, 0, key.length()));
+        }
+
+        assertEquals(500, map.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i % 2 == 0 ? null : "value-" + i, get("key-" + i));
+        }
+
+        for (int i = 0; i < 1_000; i += 2) {
+            put("key-" + i, "new-value-" + i);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals((i % 2 == 0 ? "new-value-" : "value-") + i, get("key-" + i));
+        }
+    }
+
+    @Test
+    void testClear() {
+        put("key", "value");
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(area("key"), 0, 3));
+    }
+
+    @Test
+    void testNullValueIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> put("key", null));
+    }
+
+    private String put(final String key, final String value) {
+        final ByteBufferArea area = area(key);
+        return map.put(area, 0, area.length(), value);
+    }
+
+    private String get(final String key) {
+        final ByteBufferArea area = area(key);
+        return map.get(area, 0, area.length());
+    }
+
+    private static ByteBufferArea area(final String value) {
+        return new ByteBufferArea(ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.collections;
+
+import fir.needle.joint.colleclions.ConcurrentObjectPool;
+import fir.needle.joint.colleclions.ObjectPool;
+import fir.needle.joint.colleclions.Pool;
+import fir.needle.joint.colleclions.SimpleParametrizedPrefixTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static fir.needle.joint.AllocationAssertions.assertAllocatesAtMost;
+import static fir.needle.joint.AllocationAssertions.assertAllocationFree;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HotPathAllocationTest {
+
+    @Test
+    void testPrefixTreeFindDoesNotAllocate() {
+        final SimpleParametrizedPrefixTree<String> tree = new SimpleParametrizedPrefixTree<>("/");
+        for (int i = 0; i < 10; i++) {
+            tree.insert("/service" + i + "/list", "List" + i);
+            tree.insert("/service" + i + "/{id}", "Get" + i);
+        }
+
+        final List<SimpleParametrizedPrefixTree.Parameter> pathParams = new ArrayList<>();
+        assertEquals("List7", tree.find("/service7/list", pathParams));
+
+        assertAllocationFree(() -> tree.find("/service7/list", pathParams));
+
+        // every found parameter is a new object
+        assertAllocatesAtMost(32, () -> {
+            pathParams.clear();
+            tree.find("/service7/id/42", pathParams);
+        });
+    }
+
+    @Test
+    void testPoolBorrowAndReleaseDoNotAllocate() {
+        final Pool<byte[]> pool = new ObjectPool<>(4, () -> new byte[16]);
+        assertAllocationFree(() -> pool.release(pool.borrow()));
+
+        final Pool<byte[]> concurrentPool = new ConcurrentObjectPool<>(new ObjectPool<>(4, () -> new byte[16]));
+        assertAllocationFree(() -> concurrentPool.release(concurrentPool.borrow()));
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.collections;
+
+import fir.needle.joint.colleclions.Int2ObjectMap;
+import fir.needle.joint.colleclions.IntArrayList;
+import fir.needle.joint.colleclions.Long2LongMap;
+import fir.needle.joint.colleclions.Long2ObjectMap;
+import fir.needle.joint.colleclions.LongArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static fir.needle.joint.AllocationAssertions.assertAllocationFree;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrimitiveCollectionsTest {
+
+    @Test
+    void testArrayLists() {
+        final IntArrayList ints = new IntArrayList(0);
+        for (int i = 0; i < 100; i++) {
+            ints.add(i);
+        }
+
+        assertEquals(0, ints.removeAt(0));
+        assertEquals(1, ints.fastRemoveAt(0));
+        assertEquals(99, ints.get(0));
+        assertEquals(98, ints.size());
+        assertTrue(ints.contains(50));
+        assertThrows(IndexOutOfBoundsException.class, () -> ints.get(98));
+
+        final LongArrayList longs = new LongArrayList();
+        longs.add(Long.MAX_VALUE);
+        longs.add(-1);
+        assertEquals(-1, longs.set(1, 7));
+        assertArrayEquals(new long[]{Long.MAX_VALUE, 7}, longs.toArray());
+        assertEquals(1, longs.indexOf(7));
+
+        longs.clear();
+        assertTrue(longs.isEmpty());
+    }
+
+    @Test
+    void testInt2ObjectMapMatchesHashMap() {
+        final Int2ObjectMap<String> map = new Int2ObjectMap<>(2, 0.65f);
+        final Map<Integer, String> expected = new HashMap<>();
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            final int key = random.nextInt(1_000) << 10;
+            if (random.nextBoolean()) {
+                assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (final Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+
+        int iterated = 0;
+        final Int2ObjectMap.Cursor<String> cursor = map.cursor();
+        while (cursor.next()) {
+            assertEquals(expected.get(cursor.key()), cursor.value());
+            iterated++;
+        }
+        assertEquals(expected.size(), iterated);
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+    }
+
+    @Test
+    void testLong2ObjectMap() {
+        final Long2ObjectMap<String> map = new Long2ObjectMap<>();
+        assertNull(map.put(Long.MIN_VALUE, "min"));
+        assertNull(map.put(0, "zero"));
+
+        assertEquals("min", map.get(Long.MIN_VALUE));
+        assertEquals("zero", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertNull(map.get(1));
+
+        map.clear();
+        assertFalse(map.cursor().next());
+    }
+
+    @Test
+    void testLong2LongMapUsesMissingValue() {
+        final Long2LongMap map = new Long2LongMap(-1);
+        assertEquals(-1, map.get(5));
+        assertEquals(-1, map.put(5, 0));
+        assertEquals(0, map.put(5, 10));
+        assertEquals(15, map.addAndGet(5, 5));
+        assertEquals(3, map.addAndGet(6, 3));
+        assertThrows(IllegalArgumentException.class, () -> map.put(7, -1));
+
+        assertEquals(15, map.remove(5));
+        assertEquals(-1, map.remove(5));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void testLookupAndIterationDoNotAllocate() {
+        final Long2LongMap counts = new Long2LongMap(1_024, 0.65f, Long.MIN_VALUE);
+        final Int2ObjectMap<String> names = new Int2ObjectMap<>();
+        for (int i = 0; i < 100; i++) {
+            counts.put(i, i);
+            names.put(i, "name" + i);
+        }
+
+        final long[] sum = new long[1];
+        assertAllocationFree(() -> {
+            counts.addAndGet(42, 1);
+            sum[0] += names.get(42).length();
+
+            final Long2LongMap.Cursor cursor = counts.cursor();
+            while (cursor.next()) {
+                sum[0] += cursor.value();
+            }
+        });
+    }
+}
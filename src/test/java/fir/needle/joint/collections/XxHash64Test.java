@@ -0,0 +1,79 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.collections;
+
+import fir.needle.joint.colleclions.XxHash64;
+import fir.needle.joint.io.ByteBufferArea;
+import fir.needle.joint.io.CharSequenceToCharArea;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class XxHash64Test {
+
+    @Test
+    void testHashOfBytesMatchesReferenceValues() {
+        assertEquals(0xEF46DB3751D8E999L, hash(""));
+        assertEquals(0xD24EC4F1A98C6E5BL, hash("a"));
+        assertEquals(0x44BC2CF5AD770999L, hash("abc"));
+        assertEquals(0xFBCEA83C8A378BF1L, hash("Nobody inspects the spammish repetition"));
+        assertEquals(0x69196C1B3AF0BFF9L, hash("0123456789abcdefghijklmnopqrstuvwxyz"));
+    }
+
+    @Test
+    void testHashWithSeedMatchesReferenceValues() {
+        final ByteBufferArea area = area("abc");
+        assertEquals(0x13C1D910702770E6L, XxHash64.hash(area, 0, area.length(), 42));
+    }
+
+    @Test
+    void testHashOfSubRegion() {
+        final ByteBufferArea area = area("__abc__");
+        assertEquals(0x44BC2CF5AD770999L, XxHash64.hash(area, 2, 3));
+    }
+
+    @Test
+    void testHashOfCharsMatchesUtf16LeBytes() {
+        assertEquals(0xE513E02C99167F96L, hashChars("a"));
+        assertEquals(0xAFF0F2A2F8B32731L, hashChars("abc"));
+        assertEquals(0x06062078894C4915L, hashChars("Nobody inspects the spammish repetition"));
+        assertEquals(0x46B9BB28C8FA8C71L, hashChars("0123456789abcdefghijklmnopqrstuvwxyz"));
+    }
+
+    private static long hash(final String value) {
+        final ByteBufferArea area = area(value);
+        return XxHash64.hash(area, 0, area.length());
+    }
+
+    private static long hashChars(final String value) {
+        return XxHash64.hashChars(new CharSequenceToCharArea(value), 0, value.length());
+    }
+
+    private static ByteBufferArea area(final String value) {
+        return new ByteBufferArea(ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static fir.needle.joint.AllocationAssertions.assertAllocationFree;
+
+class AdapterAllocationTest {
+    private static final String MESSAGE = "GET /service7/id/42 HTTP/1.1";
+
+    @Test
+    void testAreaAdaptersDoNotAllocate() {
+        final ByteBufferArea bytes = new ByteBufferArea(ByteBuffer.wrap(MESSAGE.getBytes(StandardCharsets.US_ASCII)));
+        final ByteToCharArea byteChars = new ByteToCharArea(bytes);
+        final CharSequenceToCharArea chars = new CharSequenceToCharArea();
+        final CharAreaToCharSequence sequence = new CharAreaToCharSequence();
+        final CharAreaToCharSequence child = new CharAreaToCharSequence();
+        final int[] sum = new int[1];
+
+        assertAllocationFree(() -> {
+            for (int i = 0; i < MESSAGE.length(); i++) {
+                sum[0] += byteChars.getChar(i);
+            }
+        });
+
+        assertAllocationFree(() -> {
+            chars.content(MESSAGE);
+            sequence.wrap(chars, 4, 15);
+            sum[0] += sequence.charAt(3) + sequence.subSequence(1, 8, child).length();
+            sequence.wrapBytes(bytes, 4, 15);
+            sum[0] += sequence.contentEquals("/service7/id/42") ? 1 : 0;
+        });
+    }
+
+    @Test
+    void testEncodersDoNotAllocate() {
+        final ByteBufferArea target = new ByteBufferArea(ByteBuffer.allocate(256));
+        final Utf8CharAppendable utf8 = new Utf8CharAppendable(target);
+        final BinaryAppender appender = new BinaryAppender(target);
+        final CharSequenceToCharArea chars = new CharSequenceToCharArea(MESSAGE);
+
+        assertAllocationFree(() -> {
+            target.buffer().clear();
+            utf8.appendArea(chars, 0, MESSAGE.length());
+            utf8.flush();
+            appender.appendVarLong(1L << 40).appendLongLE(42).appendString(MESSAGE);
+        });
+    }
+}
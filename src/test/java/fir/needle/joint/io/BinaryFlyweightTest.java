@@ -0,0 +1,118 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryFlyweightTest {
+    private ByteBuffer buffer;
+    private ByteBufferArea area;
+    private BinaryFlyweight flyweight;
+
+    @BeforeEach
+    void setUp() {
+        buffer = ByteBuffer.allocate(128);
+        area = new ByteBufferArea(buffer);
+        flyweight = new BinaryFlyweight();
+    }
+
+    @Test
+    void testFixedFieldsMatchByteBufferLayout() {
+        flyweight.wrap(area, 16);
+        flyweight.putIntLE(0, 0x01020304);
+        flyweight.putIntBE(4, 0x01020304);
+        flyweight.putLongLE(8, -42L);
+        flyweight.putShortBE(16, (short) 0xCAFE);
+        flyweight.putDoubleLE(18, 3.5);
+
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0x01020304, buffer.getInt(16));
+        assertEquals(-42L, buffer.getLong(24));
+        assertEquals(3.5, buffer.getDouble(34));
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        assertEquals(0x01020304, buffer.getInt(20));
+        assertEquals((short) 0xCAFE, buffer.getShort(32));
+
+        assertEquals(0x01020304, flyweight.getIntLE(0));
+        assertEquals(0x04030201, flyweight.getIntLE(4));
+        assertEquals(-42L, flyweight.getLongLE(8));
+        assertEquals((short) 0xCAFE, flyweight.getShortBE(16));
+        assertEquals(3.5, flyweight.getDoubleLE(18));
+    }
+
+    @Test
+    void testRewrapOverAnotherMessage() {
+        flyweight.wrap(area, 0).putLongBE(0, 1L);
+        flyweight.wrap(area, 8).putLongBE(0, 2L);
+
+        assertEquals(1L, flyweight.wrap(area, 0).getLongBE(0));
+        assertEquals(2L, flyweight.wrap(area, 8).getLongBE(0));
+    }
+
+    @Test
+    void testVariableLengthFieldsWrittenByAppenderAreReadByFlyweight() {
+        final long[] values = {0, 1, 127, 128, 300, Long.MAX_VALUE, -1, Long.MIN_VALUE};
+
+        final BinaryAppender appender = new BinaryAppender(area);
+        for (final long value : values) {
+            appender.appendVarLong(value);
+            appender.appendZigZagLong(value);
+        }
+        appender.appendString("symbol");
+        appender.appendIntLE(7);
+
+        flyweight.wrap(area, 0);
+        for (final long value : values) {
+            assertEquals(value, flyweight.readVarLong());
+            assertEquals(value, flyweight.readZigZagLong());
+        }
+
+        final CharAreaToCharSequence view = new CharAreaToCharSequence();
+        assertTrue(flyweight.readString(view).contentEquals("symbol"));
+        assertEquals(7, flyweight.getIntLE(flyweight.position()));
+    }
+
+    @Test
+    void testVarLongLength() {
+        assertEquals(1, BinaryAppender.varLongLength(0));
+        assertEquals(1, BinaryAppender.varLongLength(127));
+        assertEquals(2, BinaryAppender.varLongLength(128));
+        assertEquals(10, BinaryAppender.varLongLength(-1));
+    }
+
+    @Test
+    void testWriteToReadOnlyAreaIsRejected() {
+        flyweight.wrap(index -> 0, 0);
+        assertEquals(0, flyweight.getLongLE(0));
+        assertThrows(IllegalStateException.class, () -> flyweight.putByte(0, (byte) 1));
+    }
+}
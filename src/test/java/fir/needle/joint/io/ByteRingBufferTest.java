@@ -0,0 +1,202 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ByteRingBufferTest {
+    private ByteRingBuffer ringBuffer;
+    private List<String> records;
+    private ByteRecordHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        ringBuffer = new ByteRingBuffer(ByteBuffer.allocate(64));
+        records = new ArrayList<>();
+        handler = (area, startIndex, length) -> {
+            final byte[] bytes = new byte[(int) length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = area.getByte(startIndex + i);
+            }
+            records.add(new String(bytes, StandardCharsets.US_ASCII));
+        };
+    }
+
+    @Test
+    void testWriteAndRead() {
+        assertTrue(write("first"));
+        assertTrue(write(""));
+        assertTrue(write("second"));
+
+        assertEquals(3, ringBuffer.read(handler));
+        assertEquals(3, records.size());
+        assertEquals("first", records.get(0));
+        assertEquals("", records.get(1));
+        assertEquals("second", records.get(2));
+        assertEquals(0, ringBuffer.size());
+    }
+
+    @Test
+    void testReadStopsAtLimit() {
+        write("a");
+        write("b");
+        write("c");
+
+        assertEquals(2, ringBuffer.read(handler, 2));
+        assertEquals(1, ringBuffer.read(handler, 2));
+        assertEquals(3, records.size());
+    }
+
+    @Test
+    void testClaimFailsWhenFull() {
+        assertTrue(write("0123456789abcdef0123456789abcdef"));
+        assertTrue(write("0123456789abcdef0123456789abcdef"));
+        assertFalse(write("x"));
+
+        ringBuffer.read(handler, 1);
+        assertTrue(write("x"));
+    }
+
+    @Test
+    void testRecordWrapsAround() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(write("record-" + i));
+            assertTrue(write("another record " + i));
+            assertEquals(2, ringBuffer.read(handler));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("record-" + i, records.get(2 * i));
+            assertEquals("another record " + i, records.get(2 * i + 1));
+        }
+    }
+
+    @Test
+    void testUncommittedRecordBlocksReading() {
+        final ByteRingBuffer.Claim claim = new ByteRingBuffer.Claim();
+        assertTrue(ringBuffer.tryClaim(3, claim));
+        write("after");
+
+        assertEquals(0, ringBuffer.read(handler));
+
+        claim.appendByte((byte) 'a');
+        claim.appendArea(area("bc"), 0, 2);
+        claim.commit();
+
+        assertEquals(2, ringBuffer.read(handler));
+        assertEquals("abc", records.get(0));
+        assertEquals("after", records.get(1));
+    }
+
+    @Test
+    void testAbortedRecordIsSkipped() {
+        final ByteRingBuffer.Claim claim = new ByteRingBuffer.Claim();
+        assertTrue(ringBuffer.tryClaim(10, claim));
+        write("after");
+        claim.abort();
+
+        assertEquals(1, ringBuffer.read(handler));
+        assertEquals("after", records.get(0));
+    }
+
+    @Test
+    void testClaimOverflowIsRejected() {
+        final ByteRingBuffer.Claim claim = new ByteRingBuffer.Claim();
+        assertTrue(ringBuffer.tryClaim(1, claim));
+        claim.appendByte((byte) 1);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> claim.appendByte((byte) 2));
+        assertThrows(IllegalArgumentException.class, () -> ringBuffer.tryClaim(33, claim));
+    }
+
+    @Test
+    void testConcurrentProducers() throws InterruptedException {
+        final ByteRingBuffer concurrent = new ByteRingBuffer(1024);
+        final int producers = 4;
+        final int recordsPerProducer = 100_000;
+
+        final Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads[p] = new Thread(() -> {
+                final ByteRingBuffer.Claim claim = new ByteRingBuffer.Claim();
+                for (int i = 0; i < recordsPerProducer; i++) {
+                    while (!concurrent.tryClaim(8, claim)) {
+                        Thread.yield();
+                    }
+
+                    claim.appendByte((byte) producer);
+                    for (int shift = 0; shift < 32; shift += 8) {
+                        claim.appendByte((byte) (i >>> shift));
+                    }
+                    claim.appendByte((byte) 0);
+                    claim.appendByte((byte) 0);
+                    claim.appendByte((byte) 0);
+                    claim.commit();
+                }
+            });
+            threads[p].start();
+        }
+
+        final int[] expected = new int[producers];
+        int total = 0;
+        while (total < producers * recordsPerProducer) {
+            total += concurrent.read((area, startIndex, length) -> {
+                final int producer = area.getByte(startIndex);
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    value |= (area.getByte(startIndex + 1 + i) & 0xFF) << (i * 8);
+                }
+                assertEquals(expected[producer]++, value);
+            });
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int p = 0; p < producers; p++) {
+            assertEquals(recordsPerProducer, expected[p]);
+        }
+    }
+
+    private boolean write(final String record) {
+        return ringBuffer.write(area(record), 0, record.length());
+    }
+
+    private static ByteBufferArea area(final String value) {
+        return new ByteBufferArea(ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
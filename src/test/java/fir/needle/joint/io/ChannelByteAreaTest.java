@@ -0,0 +1,294 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import fir.needle.joint.colleclions.ObjectPool;
+import fir.needle.joint.colleclions.Pool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChannelByteAreaTest {
+
+    @Test
+    void testSeveralAreasAreGatheredInOneWrite() throws Exception {
+        final ThrottledChannel channel = new ThrottledChannel(Integer.MAX_VALUE);
+        final GatheringByteAreaWriter writer = new GatheringByteAreaWriter(4, 64);
+
+        final ByteBufferArea header = area("HTTP/1.1 200 OK\r\n");
+        final ByteBufferArea body = area("--hello--");
+        writer.add(header, 0, header.length());
+        writer.add(body, 2, 5);
+        writer.add(body, 7, 2);
+        writer.add(new StringByteArea("!"), 0, 1);
+
+        assertEquals(25, writer.writeTo(channel));
+        assertEquals(1, channel.writes);
+        assertEquals("HTTP/1.1 200 OK\r\nhello--!", channel.written());
+        assertFalse(writer.hasRemaining());
+        assertEquals(0, writer.regionCount());
+    }
+
+    @Test
+    void testPartialWriteIsResumed() throws Exception {
+        final ThrottledChannel channel = new ThrottledChannel(3);
+        final GatheringByteAreaWriter writer = new GatheringByteAreaWriter(2, 16);
+
+        final ByteBufferArea first = area("abcd");
+        writer.add(first, 0, first.length());
+        writer.add(new StringByteArea("efgh"), 0, 4);
+
+        assertEquals(3, writer.writeTo(channel));
+        assertTrue(writer.hasRemaining());
+        assertEquals(3, writer.writeTo(channel));
+        assertEquals(2, writer.writeTo(channel));
+
+        assertFalse(writer.hasRemaining());
+        assertEquals("abcdefgh", channel.written());
+    }
+
+    @Test
+    void testStagingOverflowAndTooManyRegionsAreRejected() {
+        final GatheringByteAreaWriter writer = new GatheringByteAreaWriter(2, 4);
+        writer.add(new StringByteArea("abc"), 0, 3);
+
+        assertThrows(IllegalStateException.class, () -> writer.add(new StringByteArea("de"), 0, 2));
+
+        final ByteBufferArea area = area("xyz");
+        writer.add(area, 0, 3);
+        assertThrows(IllegalStateException.class, () -> writer.add(area, 0, 1));
+
+        writer.clear();
+        writer.add(new StringByteArea("abcd"), 0, 4);
+        assertEquals(1, writer.regionCount());
+    }
+
+    @Test
+    void testPooledAreasAreReadAndReleased() throws Exception {
+        final CountingPool pool = new CountingPool();
+        final ScriptedChannel channel = new ScriptedChannel("first", "", "second", null);
+        final ChannelByteAreaReader reader = new ChannelByteAreaReader(channel, pool);
+
+        final ByteBufferArea first = reader.read();
+        assertEquals("first", text(first));
+        assertEquals(1, pool.borrowed);
+
+        assertNull(reader.read());
+        assertFalse(reader.isEndOfStream());
+        assertEquals(1, pool.borrowed);
+
+        reader.release(first);
+        final ByteBufferArea second = reader.read();
+        assertSame(first, second);
+        assertEquals("second", text(second));
+        reader.release(second);
+
+        assertNull(reader.read());
+        assertTrue(reader.isEndOfStream());
+        assertEquals(0, pool.borrowed);
+    }
+
+    @Test
+    void testSplitStopsWhenNonBlockingChannelHasNoData() throws Exception {
+        final List<String> records = new ArrayList<>();
+        final RecordSplitter splitter = new RecordSplitter(DelimiterFraming.lines(),
+                (area, startIndex, length) -> records.add(text(area, startIndex, length)), 64);
+        final ChannelByteAreaReader reader = new ChannelByteAreaReader(
+                new ScriptedChannel("one\ntw", "", "o\n", null), 16);
+
+        assertFalse(splitter.split(reader));
+        assertEquals(Arrays.asList("one"), records);
+
+        assertTrue(splitter.split(reader));
+        assertEquals(Arrays.asList("one", "two"), records);
+    }
+
+    private static ByteBufferArea area(final String text) {
+        return new ByteBufferArea(ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static String text(final ByteBufferArea area) {
+        return text(area, 0, area.length());
+    }
+
+    private static String text(final ByteArea area, final long startIndex, final long length) {
+        final StringBuilder text = new StringBuilder();
+        for (long i = startIndex; i < startIndex + length; i++) {
+            text.append((char) area.getByte(i));
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * {@link ByteArea} which is not a {@link ByteBufferArea}, so it is staged by the writer.
+     */
+    private static final class StringByteArea implements ByteArea {
+        private final String text;
+
+        StringByteArea(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        public byte getByte(final long index) {
+            return (byte) text.charAt((int) index);
+        }
+    }
+
+    private static final class CountingPool implements Pool<ByteBufferArea> {
+        private final Pool<ByteBufferArea> pool = new ObjectPool<>(() -> new ByteBufferArea(ByteBuffer.allocate(8)));
+        private int borrowed;
+
+        @Override
+        public ByteBufferArea borrow() {
+            borrowed++;
+            return pool.borrow();
+        }
+
+        @Override
+        public void release(final ByteBufferArea item) {
+            borrowed--;
+            pool.release(item);
+        }
+
+        @Override
+        public void release(final List<ByteBufferArea> items) {
+            items.forEach(this::release);
+        }
+
+        @Override
+        public int getAllocatedSize() {
+            return pool.getAllocatedSize();
+        }
+
+        @Override
+        public int getUsedSize() {
+            return borrowed;
+        }
+    }
+
+    private static final class ThrottledChannel implements GatheringByteChannel {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private final int maxBytesPerWrite;
+        private int writes;
+
+        ThrottledChannel(final int maxBytesPerWrite) {
+            this.maxBytesPerWrite = maxBytesPerWrite;
+        }
+
+        String written() {
+            return new String(output.toByteArray(), StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public long write(final ByteBuffer[] sources, final int offset, final int length) {
+            writes++;
+            int written = 0;
+            for (int i = offset; i < offset + length && written < maxBytesPerWrite; i++) {
+                while (sources[i].hasRemaining() && written < maxBytesPerWrite) {
+                    output.write(sources[i].get());
+                    written++;
+                }
+            }
+
+            return written;
+        }
+
+        @Override
+        public long write(final ByteBuffer[] sources) {
+            return write(sources, 0, sources.length);
+        }
+
+        @Override
+        public int write(final ByteBuffer source) {
+            return (int) write(new ByteBuffer[]{source});
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+
+    /**
+     * Returns the chunks one per read, an empty chunk is a read of no bytes and {@code null} is the end
+     * of the stream.
+     */
+    private static final class ScriptedChannel implements ReadableByteChannel {
+        private final Deque<String> chunks = new ArrayDeque<>();
+        private boolean endOfStream;
+
+        ScriptedChannel(final String... chunks) {
+            for (final String chunk : chunks) {
+                if (chunk != null) {
+                    this.chunks.add(chunk);
+                }
+            }
+        }
+
+        @Override
+        public int read(final ByteBuffer target) {
+            if (chunks.isEmpty() || endOfStream) {
+                endOfStream = true;
+                return -1;
+            }
+
+            final byte[] bytes = chunks.poll().getBytes(StandardCharsets.US_ASCII);
+            target.put(bytes);
+            return bytes.length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+}
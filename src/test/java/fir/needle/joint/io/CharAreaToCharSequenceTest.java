@@ -0,0 +1,143 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CharAreaToCharSequenceTest {
+    private static final String CONTENT = "GET /service7/id/42 HTTP/1.1";
+
+    @Test
+    void testCharArea() {
+        final CharAreaToCharSequence sequence =
+                new CharAreaToCharSequence(new CharSequenceToCharArea(CONTENT), 4, 15);
+
+        assertEquals(15, sequence.length());
+        assertEquals('/', sequence.charAt(0));
+        assertEquals('2', sequence.charAt(14));
+        assertEquals("/service7/id/42", sequence.toString());
+    }
+
+    @Test
+    void testByteArea() {
+        final CharAreaToCharSequence sequence = new CharAreaToCharSequence().wrapBytes(bytes(CONTENT), 4, 15);
+
+        assertEquals(15, sequence.length());
+        assertEquals('/', sequence.charAt(0));
+        assertEquals('2', sequence.charAt(14));
+        assertEquals("/service7/id/42", sequence.toString());
+    }
+
+    @Test
+    void testByteAreaReadsBytesAsUnsigned() {
+        final ByteBufferArea area = new ByteBufferArea(ByteBuffer.wrap(new byte[] {(byte) 0xE9, 'a'}));
+        final CharAreaToCharSequence sequence = new CharAreaToCharSequence().wrapBytes(area, 0, 2);
+
+        assertEquals('\u00e9', sequence.charAt(0));
+        assertEquals('a', sequence.charAt(1));
+    }
+
+    @Test
+    void testCharAtOutOfRange() {
+        final CharAreaToCharSequence sequence = new CharAreaToCharSequence().wrapBytes(bytes(CONTENT), 4, 15);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.charAt(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.charAt(15));
+    }
+
+    @Test
+    void testSubSequenceOverCharArea() {
+        final CharAreaToCharSequence sequence =
+                new CharAreaToCharSequence(new CharSequenceToCharArea(CONTENT), 4, 15);
+
+        assertEquals("service7", sequence.subSequence(1, 9).toString());
+        assertEquals("", sequence.subSequence(3, 3).toString());
+    }
+
+    @Test
+    void testSubSequenceOverByteArea() {
+        final CharAreaToCharSequence sequence = new CharAreaToCharSequence().wrapBytes(bytes(CONTENT), 4, 15);
+
+        assertEquals("service7", sequence.subSequence(1, 9).toString());
+        assertEquals("42", sequence.subSequence(13, 15).toString());
+    }
+
+    @Test
+    void testSubSequencesAreIndependent() {
+        final CharAreaToCharSequence sequence =
+                new CharAreaToCharSequence(new CharSequenceToCharArea(CONTENT), 4, 15);
+
+        final CharSequence first = sequence.subSequence(1, 9);
+        final CharSequence second = sequence.subSequence(13, 15);
+
+        assertEquals("service7", first.toString());
+        assertEquals("42", second.toString());
+    }
+
+    @Test
+    void testSubSequenceRePointsTarget() {
+        final CharAreaToCharSequence sequence = new CharAreaToCharSequence().wrapBytes(bytes(CONTENT), 4, 15);
+        final CharAreaToCharSequence target = new CharAreaToCharSequence();
+
+        assertSame(target, sequence.subSequence(10, 12, target));
+        assertEquals("id", target.toString());
+    }
+
+    @Test
+    void testSubSequenceOutOfRange() {
+        final CharAreaToCharSequence sequence =
+                new CharAreaToCharSequence(new CharSequenceToCharArea(CONTENT), 4, 15);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.subSequence(-1, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.subSequence(0, 16));
+        assertThrows(IndexOutOfBoundsException.class, () -> sequence.subSequence(5, 4));
+    }
+
+    @Test
+    void testContentEquals() {
+        final CharAreaToCharSequence chars =
+                new CharAreaToCharSequence(new CharSequenceToCharArea(CONTENT), 4, 15);
+        final CharAreaToCharSequence bytes = new CharAreaToCharSequence().wrapBytes(bytes(CONTENT), 4, 15);
+
+        assertTrue(chars.contentEquals("/service7/id/42"));
+        assertTrue(bytes.contentEquals("/service7/id/42"));
+        assertTrue(chars.contentEquals(bytes));
+        assertFalse(chars.contentEquals("/service7/id/43"));
+        assertFalse(bytes.contentEquals("/service7/id/4"));
+        assertFalse(bytes.contentEquals(null));
+    }
+
+    private static ByteBufferArea bytes(final String content) {
+        return new ByteBufferArea(ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordSplitterTest {
+    private final List<String> records = new ArrayList<>();
+    private final ByteRecordHandler handler = (area, startIndex, length) -> {
+        final byte[] bytes = new byte[(int) length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = area.getByte(startIndex + i);
+        }
+        records.add(new String(bytes, StandardCharsets.US_ASCII));
+    };
+
+    @Test
+    void testLinesSplitIntoRandomChunks() {
+        final List<String> lines = lines(1_000);
+        final byte[] stream = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.US_ASCII);
+
+        final RecordSplitter splitter = new RecordSplitter(DelimiterFraming.lines(), handler, 1024);
+        feed(splitter, stream, new Random(42));
+
+        assertEquals(lines, records);
+        assertEquals(0, splitter.carriedLength());
+    }
+
+    @Test
+    void testLastLineWithoutDelimiterIsFlushed() {
+        final RecordSplitter splitter = new RecordSplitter(DelimiterFraming.lines(), handler, 1024);
+        splitter.onChunk(area("first\nsec"), 0, 9);
+        splitter.onChunk(area("ond\nthird"), 0, 9);
+        splitter.flush();
+
+        assertEquals(Arrays.asList("first", "second", "third"), records);
+    }
+
+    @Test
+    void testLengthPrefixedRecordsSplitIntoRandomChunks() {
+        final List<String> lines = lines(1_000);
+        final ByteBuffer stream = ByteBuffer.allocate(64 * 1024);
+        for (final String line : lines) {
+            stream.putShort((short) line.length());
+            stream.put(line.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        final RecordSplitter splitter = new RecordSplitter(new LengthPrefixFraming(2, true), handler, 1024);
+        feed(splitter, Arrays.copyOf(stream.array(), stream.position()), new Random(7));
+
+        assertEquals(lines, records);
+    }
+
+    @Test
+    void testSplitChannel() throws Exception {
+        final List<String> lines = lines(10_000);
+        final byte[] stream = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.US_ASCII);
+
+        final RecordSplitter splitter = new RecordSplitter(DelimiterFraming.lines(), handler, 1024);
+        assertTrue(splitter.split(new ChannelByteAreaReader(
+                Channels.newChannel(new ByteArrayInputStream(stream)), 333)));
+
+        assertEquals(lines, records);
+    }
+
+    @Test
+    void testTooLongFrameIsRejected() {
+        final RecordSplitter splitter = new RecordSplitter(DelimiterFraming.lines(), handler, 8);
+        splitter.onChunk(area("12345"), 0, 5);
+
+        assertThrows(IllegalStateException.class, () -> splitter.onChunk(area("6789"), 0, 4));
+    }
+
+    private static void feed(final RecordSplitter splitter, final byte[] stream, final Random random) {
+        int position = 0;
+        while (position < stream.length) {
+            final int chunkLength = Math.min(stream.length - position, random.nextInt(40));
+            final ByteBuffer chunk = ByteBuffer.allocate(chunkLength + 16);
+            chunk.position(8);
+            chunk.put(stream, position, chunkLength);
+
+            splitter.onChunk(new ByteBufferArea(chunk), 8, chunkLength);
+            position += chunkLength;
+        }
+    }
+
+    private static List<String> lines(final int count) {
+        final Random random = new Random(count);
+        final List<String> lines = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final char[] line = new char[random.nextInt(30)];
+            Arrays.fill(line, (char) ('a' + i % 26));
+            lines.add(new String(line));
+        }
+
+        return lines;
+    }
+
+    private static ByteBufferArea area(final String value) {
+        return new ByteBufferArea(ByteBuffer.wrap(value.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.io;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Utf8CharAppendableTest {
+    private static final String MIXED = "plain ASCII, \u00e9t\u00e9, \u20ac100, \ud83d\ude00 and \ud834\udd1e";
+
+    private ByteBuffer buffer;
+    private Utf8CharAppendable encoder;
+
+    @BeforeEach
+    void setUp() {
+        buffer = ByteBuffer.allocate(256);
+        encoder = new Utf8CharAppendable(new ByteBufferArea(buffer));
+    }
+
+    @Test
+    void testAppendCharsMatchesStringGetBytes() {
+        for (int i = 0; i < MIXED.length(); i++) {
+            encoder.appendChar(MIXED.charAt(i));
+        }
+        encoder.flush();
+
+        assertArrayEquals(MIXED.getBytes(StandardCharsets.UTF_8), encoded());
+    }
+
+    @Test
+    void testAppendAreaMatchesStringGetBytes() {
+        encoder.appendArea(new CharSequenceToCharArea(MIXED), 0, MIXED.length());
+        encoder.flush();
+
+        assertArrayEquals(MIXED.getBytes(StandardCharsets.UTF_8), encoded());
+    }
+
+    @Test
+    void testSurrogatePairSplitBetweenAreas() {
+        final CharSequenceToCharArea area = new CharSequenceToCharArea(MIXED);
+        final int split = MIXED.indexOf('\ud83d') + 1;
+
+        encoder.appendArea(area, 0, split);
+        encoder.appendArea(area, split, MIXED.length() - split);
+        encoder.flush();
+
+        assertArrayEquals(MIXED.getBytes(StandardCharsets.UTF_8), encoded());
+    }
+
+    @Test
+    void testUnpairedSurrogatesAreReplaced() {
+        final String malformed = "a\ud83db\ude00c\ud83d";
+        encoder.appendArea(new CharSequenceToCharArea(malformed), 0, malformed.length());
+        encoder.flush();
+
+        assertArrayEquals(malformed.getBytes(StandardCharsets.UTF_8), encoded());
+    }
+
+    @Test
+    void testEncodedLength() {
+        final String malformed = "a\ud83db\ude00c\ud83d";
+
+        assertEquals(MIXED.getBytes(StandardCharsets.UTF_8).length,
+                Utf8CharAppendable.encodedLength(new CharSequenceToCharArea(MIXED), 0, MIXED.length()));
+        assertEquals(malformed.getBytes(StandardCharsets.UTF_8).length,
+                Utf8CharAppendable.encodedLength(new CharSequenceToCharArea(malformed), 0, malformed.length()));
+    }
+
+    private byte[] encoded() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompletableResultFutureTest {
+    private CompletableResultFuture<VoidResult> future;
+
+    @BeforeEach
+    void setUp() {
+        future = new CompletableResultFuture<>();
+    }
+
+    @Test
+    void testListenersAreCalledOnCompletion() {
+        final List<VoidResult> results = new ArrayList<>();
+        future.onComplete(results::add);
+        future.onComplete(results::add);
+        future.onComplete(results::add);
+
+        assertFalse(future.isDone());
+        assertNull(future.poll());
+        assertTrue(results.isEmpty());
+
+        assertTrue(future.complete(VoidResult.NO_ERROR_RESULT));
+
+        assertTrue(future.isDone());
+        assertSame(VoidResult.NO_ERROR_RESULT, future.poll());
+        assertEquals(3, results.size());
+    }
+
+    @Test
+    void testListenerAddedAfterCompletionIsCalledImmediately() {
+        future.complete(VoidResult.NO_ERROR_RESULT);
+
+        final List<VoidResult> results = new ArrayList<>();
+        future.onComplete(results::add);
+
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    void testSecondCompletionIsIgnored() {
+        final VoidResult error = new VoidResult();
+        error.setError(new IllegalStateException());
+
+        assertTrue(future.complete(VoidResult.NO_ERROR_RESULT));
+        assertFalse(future.complete(error));
+        assertSame(VoidResult.NO_ERROR_RESULT, future.poll());
+    }
+
+    @Test
+    void testFailingListenerDoesNotPreventOthers() {
+        final List<VoidResult> results = new ArrayList<>();
+        future.onComplete(results::add);
+        future.onComplete(result -> {
+            throw new IllegalStateException();
+        });
+        future.onComplete(results::add);
+
+        assertThrows(IllegalStateException.class, () -> future.complete(VoidResult.NO_ERROR_RESULT));
+        assertEquals(2, results.size());
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    void testSyncWaitsForAnotherThread() throws InterruptedException {
+        final Thread completer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (final InterruptedException e) {
+                LangUtil.rethrowUnchecked(e);
+            }
+            future.complete(VoidResult.NO_ERROR_RESULT);
+        });
+        completer.start();
+
+        assertSame(VoidResult.NO_ERROR_RESULT, future.sync());
+        completer.join();
+    }
+
+    @Test
+    void testSyncWithTimeout() throws InterruptedException {
+        assertNull(future.sync(10, TimeUnit.MILLISECONDS));
+
+        future.complete(VoidResult.NO_ERROR_RESULT);
+        assertSame(VoidResult.NO_ERROR_RESULT, future.sync(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testRepeatedSyncWithTimeoutDoesNotAccumulateWaiters() throws InterruptedException {
+        for (int i = 0; i < 1_000; i++) {
+            assertNull(future.sync(1, TimeUnit.MICROSECONDS));
+        }
+        assertEquals(0, future.waiterCount());
+
+        final Thread waiter = new Thread(() -> {
+            try {
+                future.sync();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        while (future.waiterCount() == 0) {
+            Thread.yield();
+        }
+
+        assertNull(future.sync(1, TimeUnit.MILLISECONDS));
+        assertEquals(1, future.waiterCount());
+
+        future.complete(VoidResult.NO_ERROR_RESULT);
+        waiter.join();
+        assertEquals(0, future.waiterCount());
+    }
+
+    @Test
+    void testSyncWithEveryWaitStrategy() throws InterruptedException {
+        final WaitStrategy[] strategies = {
+            WaitStrategies.busySpin(),
+            WaitStrategies.spinThenYield(100),
+            WaitStrategies.backoff(100, 10, 1_000, 1_000_000),
+            WaitStrategies.park()
+        };
+
+        for (final WaitStrategy strategy : strategies) {
+            final CompletableResultFuture<VoidResult> waited = new CompletableResultFuture<>(strategy);
+            assertNull(waited.sync(1, TimeUnit.MILLISECONDS));
+
+            final Thread completer = new Thread(() -> waited.complete(VoidResult.NO_ERROR_RESULT));
+            completer.start();
+
+            assertSame(VoidResult.NO_ERROR_RESULT, waited.sync());
+            completer.join();
+        }
+    }
+
+    @Test
+    void testCompletionStageInterop() throws Exception {
+        final CompletableFuture<VoidResult> stage = new CompletableFuture<>();
+        final CompletableResultFuture<VoidResult> adapted = CompletableResultFuture.of(stage, error -> {
+            final VoidResult result = new VoidResult();
+            result.setError((Exception) error);
+            return result;
+        });
+
+        final IllegalStateException error = new IllegalStateException();
+        stage.completeExceptionally(error);
+        assertSame(error, adapted.poll().error());
+
+        final CompletableFuture<VoidResult> converted = future.toCompletableFuture();
+        assertFalse(converted.isDone());
+        future.complete(VoidResult.NO_ERROR_RESULT);
+        assertSame(VoidResult.NO_ERROR_RESULT, converted.get());
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import fir.needle.joint.logging.SystemLogger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLoopTest {
+
+    @Test
+    void testTasksAreRunInSubmissionOrder() throws InterruptedException {
+        final EventLoop eventLoop = new EventLoop(Thread::new, 16, SystemLogger.error());
+        eventLoop.start();
+
+        final List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            eventLoop.execute(values::add, i);
+        }
+        eventLoop.execute(() -> values.add(assertInEventLoop(eventLoop)));
+
+        eventLoop.close();
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5), values);
+    }
+
+    @Test
+    void testScheduledTimerIsRunByEventLoop() throws InterruptedException {
+        final EventLoop eventLoop = new EventLoop(Thread::new, 16, SystemLogger.error());
+        eventLoop.start();
+
+        final CountDownLatch fired = new CountDownLatch(1);
+        eventLoop.execute(() -> eventLoop.schedule(2, TimeUnit.MILLISECONDS, id -> fired.countDown()));
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        eventLoop.close();
+    }
+
+    @Test
+    void testClosedEventLoopRejectsTasks() throws InterruptedException {
+        final EventLoop eventLoop = new EventLoop(Thread::new, 16, SystemLogger.error());
+        eventLoop.start();
+        eventLoop.execute(() -> {
+            throw new IllegalStateException("Logged and ignored");
+        });
+        eventLoop.close();
+
+        assertFalse(eventLoop.offer(() -> { }));
+        assertThrows(RejectedExecutionException.class, () -> eventLoop.execute(() -> { }));
+        assertThrows(IllegalStateException.class, () -> eventLoop.schedule(1, TimeUnit.MILLISECONDS, id -> { }));
+    }
+
+    @Test
+    void testThrowingTimerDoesNotStopEventLoop() throws InterruptedException {
+        final EventLoop eventLoop = new EventLoop(Thread::new, 16, SystemLogger.error());
+        eventLoop.start();
+
+        final CountDownLatch fired = new CountDownLatch(2);
+        eventLoop.execute(() -> {
+            eventLoop.schedule(1, TimeUnit.MILLISECONDS, id -> {
+                throw new IllegalStateException("Logged and ignored");
+            });
+            eventLoop.schedule(1, TimeUnit.MILLISECONDS, id -> fired.countDown());
+        });
+        eventLoop.execute(() -> eventLoop.schedule(10, TimeUnit.MILLISECONDS, id -> fired.countDown()));
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        eventLoop.execute(fired::countDown);
+        eventLoop.close();
+    }
+
+    @Test
+    void testTimerFiresAfterTimeoutListenerCancelsItsOwnTimer() throws InterruptedException {
+        final EventLoop eventLoop = new EventLoop(Thread::new, 16, SystemLogger.error());
+        eventLoop.start();
+
+        final CountDownLatch fired = new CountDownLatch(1);
+        eventLoop.execute(() -> {
+            final TimerWheel timerWheel = eventLoop.timerWheel();
+            final CompletableResultFuture<VoidResult> future = new CompletableResultFuture<>();
+            final long timerId = timerWheel.scheduleTimeout(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1),
+                    future, VoidResult.NO_ERROR_RESULT);
+            future.onComplete(result -> timerWheel.cancel(timerId));
+
+            eventLoop.schedule(20, TimeUnit.MILLISECONDS, id -> fired.countDown());
+        });
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        eventLoop.close();
+    }
+
+    @Test
+    void testTasksSubmittedBeforeStartAreRunOnClose() {
+        final EventLoop eventLoop = new EventLoop(Thread::new, 16, SystemLogger.error());
+        final List<Integer> values = new ArrayList<>();
+        eventLoop.execute(values::add, 1);
+
+        eventLoop.close();
+        assertEquals(Arrays.asList(1), values);
+        assertThrows(IllegalStateException.class, eventLoop::start);
+    }
+
+    @Test
+    void testEveryAcceptedTaskIsRunWhenClosedConcurrently() throws InterruptedException {
+        for (int attempt = 0; attempt < 20; attempt++) {
+            final EventLoop eventLoop = new EventLoop(Thread::new, 1024, SystemLogger.error());
+            eventLoop.start();
+
+            final AtomicInteger accepted = new AtomicInteger();
+            final AtomicInteger run = new AtomicInteger();
+            final Thread[] producers = new Thread[4];
+            for (int i = 0; i < producers.length; i++) {
+                producers[i] = new Thread(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        if (eventLoop.offer(run::incrementAndGet)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                });
+                producers[i].start();
+            }
+
+            eventLoop.close();
+            for (final Thread producer : producers) {
+                producer.join();
+            }
+
+            assertEquals(accepted.get(), run.get());
+        }
+    }
+
+    private static int assertInEventLoop(final EventLoop eventLoop) {
+        assertTrue(eventLoop.inEventLoop());
+        return 5;
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuturesTest {
+
+    @Test
+    void testAllOfCompletesWhenAllFuturesComplete() {
+        final CompletableResultFuture<VoidResult> first = new CompletableResultFuture<>();
+        final CompletableResultFuture<VoidResult> second = new CompletableResultFuture<>();
+        final VoidResult failed = failedResult();
+
+        final ListenableFuture<Result> all = Futures.allOf(first, second, new NoWaitFuture());
+        first.complete(failed);
+        assertFalse(all.isDone());
+
+        second.complete(VoidResult.NO_ERROR_RESULT);
+        assertTrue(all.isDone());
+        assertSame(failed, all.poll());
+    }
+
+    @Test
+    void testAnyOfCompletesWithFirstResult() {
+        final CompletableResultFuture<VoidResult> first = new CompletableResultFuture<>();
+        final CompletableResultFuture<VoidResult> second = new CompletableResultFuture<>();
+        final VoidResult result = new VoidResult();
+
+        final ListenableFuture<Result> any = Futures.anyOf(first, second);
+        assertFalse(any.isDone());
+
+        second.complete(result);
+        first.complete(VoidResult.NO_ERROR_RESULT);
+        assertSame(result, any.poll());
+    }
+
+    @Test
+    void testFirstErrorFailsFast() {
+        final CompletableResultFuture<VoidResult> first = new CompletableResultFuture<>();
+        final CompletableResultFuture<VoidResult> second = new CompletableResultFuture<>();
+        final VoidResult failed = failedResult();
+
+        final ListenableFuture<Result> firstError = Futures.firstError(first, second);
+        second.complete(failed);
+        assertSame(failed, firstError.poll());
+
+        final ListenableFuture<Result> noError = Futures.firstError(first, CompletableResultFuture.completed(
+                VoidResult.NO_ERROR_RESULT));
+        assertFalse(noError.isDone());
+        first.complete(VoidResult.NO_ERROR_RESULT);
+        assertSame(VoidResult.NO_ERROR_RESULT, noError.poll());
+    }
+
+    @Test
+    void testCloseAllAndEmptyComposites() {
+        final CompletableResultFuture<VoidResult> closed = new CompletableResultFuture<>();
+        final ListenableFuture<Result> all = Futures.closeAll(closeable(closed), closeable(new NoWaitFuture()));
+        assertFalse(all.isDone());
+
+        closed.complete(VoidResult.NO_ERROR_RESULT);
+        assertSame(VoidResult.NO_ERROR_RESULT, all.poll());
+
+        assertTrue(Futures.allOf().isDone());
+        assertThrows(IllegalArgumentException.class, Futures::anyOf);
+        assertThrows(IllegalArgumentException.class, () -> Futures.allOf(() -> VoidResult.NO_ERROR_RESULT));
+    }
+
+    @Test
+    void testCloseAllWaitsForPlainFutures() {
+        final CompletableResultFuture<VoidResult> listenable = new CompletableResultFuture<>();
+        final VoidResult failed = failedResult();
+        final int[] closing = new int[1];
+
+        final ListenableFuture<Result> all = Futures.closeAll(
+                closeable(() -> {
+                    closing[0]++;
+                    return failed;
+                }),
+                closeable(listenable),
+                closeable(() -> VoidResult.NO_ERROR_RESULT));
+
+        assertEquals(1, closing[0]);
+        assertFalse(all.isDone());
+
+        listenable.complete(VoidResult.NO_ERROR_RESULT);
+        assertSame(failed, all.poll());
+    }
+
+    @Test
+    void testInputsAreValidatedBeforeListening() {
+        final int[] listeners = new int[1];
+        final CompletableResultFuture<VoidResult> first = new CompletableResultFuture<VoidResult>() {
+            @Override
+            public void onComplete(final ResultListener<? super VoidResult> listener) {
+                listeners[0]++;
+                super.onComplete(listener);
+            }
+        };
+
+        assertThrows(IllegalArgumentException.class, () -> Futures.allOf(first, () -> VoidResult.NO_ERROR_RESULT));
+        assertThrows(IllegalArgumentException.class, () -> Futures.anyOf(first, () -> VoidResult.NO_ERROR_RESULT));
+        assertThrows(IllegalArgumentException.class,
+                () -> Futures.firstError(first, () -> VoidResult.NO_ERROR_RESULT));
+        assertEquals(0, listeners[0]);
+    }
+
+    private static Closeable closeable(final Future<VoidResult> closeFuture) {
+        return new Closeable() {
+            @Override
+            public Future<VoidResult> closeAsync() {
+                return closeFuture;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static VoidResult failedResult() {
+        final VoidResult result = new VoidResult();
+        result.setError(new IllegalStateException("Failed"));
+        return result;
+    }
+}
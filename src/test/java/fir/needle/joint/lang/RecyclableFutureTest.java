@@ -0,0 +1,97 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecyclableFutureTest {
+    private final RecyclableFuturePool<VoidResult> pool = RecyclableFuturePool.voidResults();
+
+    @Test
+    void testFutureIsReusedAfterRecycling() {
+        final RecyclableFuture<VoidResult> future = pool.borrow();
+        final VoidResult result = future.result();
+        result.setError(new IllegalStateException());
+        assertTrue(future.complete());
+        assertSame(result, future.poll());
+
+        future.recycle();
+
+        final RecyclableFuture<VoidResult> reused = pool.borrow();
+        assertSame(future, reused);
+        assertSame(result, reused.result());
+        assertFalse(reused.isDone());
+        assertNull(reused.result().error());
+        assertEquals(1, reused.generation());
+    }
+
+    @Test
+    void testStaleHandleIsDetected() {
+        final RecyclableFuture<VoidResult> future = pool.borrow();
+        final long generation = future.generation();
+        future.complete();
+
+        assertTrue(future.isDone(generation));
+        future.recycle();
+
+        assertFalse(future.isValid(generation));
+        assertThrows(IllegalStateException.class, () -> future.poll(generation));
+        assertThrows(IllegalStateException.class, () -> future.isDone(generation));
+        assertThrows(IllegalStateException.class, () -> future.sync(generation));
+        assertThrows(IllegalStateException.class, () -> future.sync(generation, 1, TimeUnit.MILLISECONDS));
+        assertThrows(IllegalStateException.class, () -> future.onComplete(generation, result -> { }));
+    }
+
+    @Test
+    void testSyncDetectsFutureRecycledByAnotherThread() throws InterruptedException {
+        final RecyclableFuture<VoidResult> future = pool.borrow();
+        final long generation = future.generation();
+        assertNull(future.sync(generation, 1, TimeUnit.MILLISECONDS));
+
+        final Thread owner = new Thread(() -> {
+            future.complete();
+            future.recycle();
+        });
+        owner.start();
+        owner.join();
+
+        assertThrows(IllegalStateException.class, () -> future.sync(generation));
+        assertSame(future, pool.borrow());
+        assertNull(future.sync(generation + 1, 1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void testPendingFutureCannotBeRecycled() {
+        assertThrows(IllegalStateException.class, () -> pool.borrow().recycle());
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StacklessExceptionTest {
+
+    @Test
+    void testPreallocatedErrorIsReportedWithoutStackTrace() {
+        final VoidResult result = new VoidResult();
+        assertEquals(Result.NO_ERROR_CODE, result.errorCode());
+
+        result.setError(StacklessException.TIMEOUT);
+        assertSame(StacklessException.TIMEOUT, result.error());
+        assertEquals(StacklessException.TIMEOUT_CODE, result.errorCode());
+        assertEquals(0, result.error().getStackTrace().length);
+
+        result.setError(new IllegalStateException());
+        assertEquals(Result.UNKNOWN_ERROR_CODE, result.errorCode());
+    }
+
+    @Test
+    void testSuppressedExceptionsAreNotRecorded() {
+        StacklessException.CLOSED.addSuppressed(new IllegalStateException());
+        assertEquals(0, StacklessException.CLOSED.getSuppressed().length);
+    }
+
+    @Test
+    void testErrorCodeShouldBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new StacklessException(0, "No error"));
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.lang;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+    private static final long TICK = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private TimerWheel wheel;
+    private List<Long> expired;
+    private TimeoutHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 8, 0);
+        expired = new ArrayList<>();
+        handler = expired::add;
+    }
+
+    @Test
+    void testTimersExpireAtTheirDeadlines() {
+        final long first = wheel.schedule(3 * TICK, handler);
+        final long second = wheel.schedule(5 * TICK, handler);
+        assertEquals(2, wheel.size());
+
+        assertEquals(0, wheel.poll(2 * TICK));
+        assertEquals(1, wheel.poll(3 * TICK));
+        assertEquals(Arrays.asList(first), expired);
+
+        assertEquals(1, wheel.poll(10 * TICK));
+        assertEquals(Arrays.asList(first, second), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testTimerBeyondOneTurnOfTheWheel() {
+        final long timerId = wheel.schedule(20 * TICK, handler);
+
+        assertEquals(0, wheel.poll(19 * TICK));
+        assertEquals(1, wheel.poll(20 * TICK));
+        assertEquals(Arrays.asList(timerId), expired);
+    }
+
+    @Test
+    void testOverdueTimerExpiresOnNextTick() {
+        wheel.poll(10 * TICK);
+        wheel.schedule(TICK, handler);
+
+        assertEquals(0, wheel.poll(10 * TICK));
+        assertEquals(1, wheel.poll(11 * TICK));
+    }
+
+    @Test
+    void testTimerScheduledByHandlerExpiresOnNextTick() {
+        wheel.schedule(5 * TICK, timerId -> wheel.schedule(5 * TICK, handler));
+
+        assertEquals(1, wheel.poll(5 * TICK));
+        assertEquals(1, wheel.size());
+        assertEquals(1, wheel.poll(6 * TICK));
+        assertEquals(1, expired.size());
+    }
+
+    @Test
+    void testCancel() {
+        final long timerId = wheel.schedule(3 * TICK, handler);
+
+        assertTrue(wheel.cancel(timerId));
+        assertFalse(wheel.cancel(timerId));
+        assertEquals(0, wheel.poll(10 * TICK));
+        assertTrue(expired.isEmpty());
+        assertFalse(wheel.cancel(TimerWheel.NULL_TIMER));
+    }
+
+    @Test
+    void testStaleIdDoesNotCancelReusedEntry() {
+        final long staleId = wheel.schedule(TICK, handler);
+        wheel.poll(TICK);
+
+        final long reusedId = wheel.schedule(2 * TICK, handler);
+
+        assertFalse(wheel.cancel(staleId));
+        assertEquals(1, wheel.poll(2 * TICK));
+        assertEquals(Arrays.asList(staleId, reusedId), expired);
+    }
+
+    @Test
+    void testHandlerCancelsTimerDueAtTheSameTick() {
+        final long[] timerIds = new long[2];
+        timerIds[0] = wheel.schedule(TICK, timerId -> {
+            expired.add(timerId);
+            assertTrue(wheel.cancel(timerIds[1]));
+        });
+        timerIds[1] = wheel.schedule(TICK, timerId -> {
+            expired.add(timerId);
+            assertTrue(wheel.cancel(timerIds[0]));
+        });
+
+        assertEquals(1, wheel.poll(TICK));
+        assertEquals(1, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testFiringTimerCannotBeCancelled() {
+        final boolean[] cancelled = new boolean[1];
+        final long[] timerId = new long[1];
+        timerId[0] = wheel.schedule(TICK, id -> cancelled[0] = wheel.cancel(id));
+        final long pending = wheel.schedule(5 * TICK, handler);
+
+        assertEquals(1, wheel.poll(TICK));
+        assertFalse(cancelled[0]);
+        assertFalse(wheel.cancel(timerId[0]));
+        assertEquals(1, wheel.size());
+        assertFalse(wheel.isEmpty());
+
+        assertEquals(1, wheel.poll(5 * TICK));
+        assertEquals(Arrays.asList(pending), expired);
+        assertEquals(0, wheel.size());
+        assertTrue(wheel.isEmpty());
+    }
+
+    @Test
+    void testScheduledCancelAndTimeout() {
+        final List<Boolean> cancelled = new ArrayList<>();
+        wheel.scheduleCancel(TICK, () -> {
+            cancelled.add(true);
+            return NoWaitFuture.INSTANCE;
+        });
+
+        final VoidResult timeoutResult = new VoidResult();
+        final CompletableResultFuture<VoidResult> timedOut = new CompletableResultFuture<>();
+        final CompletableResultFuture<VoidResult> completed = new CompletableResultFuture<>();
+        wheel.scheduleTimeout(2 * TICK, timedOut, timeoutResult);
+        wheel.scheduleTimeout(2 * TICK, completed, timeoutResult);
+        completed.complete(VoidResult.NO_ERROR_RESULT);
+
+        assertEquals(3, wheel.poll(2 * TICK));
+        assertEquals(1, cancelled.size());
+        assertSame(timeoutResult, timedOut.poll());
+        assertSame(VoidResult.NO_ERROR_RESULT, completed.poll());
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncLoggerTest {
+
+    @Test
+    void testMessagesArePassedToDelegateInOrder() throws InterruptedException {
+        final RecordingLogger delegate = new RecordingLogger();
+        final AsyncLogger logger = new AsyncLogger(delegate, 8, 16, OverflowPolicy.BLOCK, Thread::new);
+        logger.start();
+
+        final StringBuilder message = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            message.setLength(0);
+            logger.info(message.append("message ").append(i));
+        }
+        logger.error("error", new IllegalStateException());
+        logger.close();
+
+        assertEquals(101, delegate.messages.size());
+        assertEquals("message 0", delegate.messages.get(0));
+        assertEquals("message 99", delegate.messages.get(99));
+        assertEquals("error java.lang.IllegalStateException", delegate.messages.get(100));
+        assertEquals(0, logger.droppedCount());
+    }
+
+    @Test
+    void testFailingArgumentDoesNotStallLogger() {
+        final RecordingLogger delegate = new RecordingLogger();
+        final AsyncLogger logger = new AsyncLogger(delegate, 4, 16, OverflowPolicy.BLOCK, Thread::new);
+        logger.start();
+
+        final CharSequence failing = new CharSequence() {
+            @Override
+            public int length() {
+                return 7;
+            }
+
+            @Override
+            public char charAt(final int index) {
+                throw new IllegalStateException("Changed while copied");
+            }
+
+            @Override
+            public CharSequence subSequence(final int start, final int end) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(IllegalStateException.class, () -> logger.info("Argument {}", failing));
+            logger.info("Argument {}", i);
+        }
+        logger.close();
+
+        assertEquals(10, delegate.messages.size());
+        assertEquals("Argument 9", delegate.messages.get(9));
+    }
+
+    @Test
+    void testOverflowPolicies() throws InterruptedException {
+        final RecordingLogger dropDelegate = new RecordingLogger();
+        final AsyncLogger dropLogger = new AsyncLogger(dropDelegate, 2, 4, OverflowPolicy.DROP, Thread::new);
+        dropLogger.info("first message");
+        dropLogger.info("second");
+        dropLogger.info("third");
+        assertEquals(1, dropLogger.droppedCount());
+        assertEquals(Collections.emptyList(), dropDelegate.messages);
+
+        dropLogger.close();
+        assertEquals(Arrays.asList("firs", "seco"), dropDelegate.messages);
+
+        final RecordingLogger spillDelegate = new RecordingLogger();
+        final AsyncLogger spillLogger = new AsyncLogger(spillDelegate, 2, 8, OverflowPolicy.SPILL, Thread::new);
+        spillLogger.info("first");
+        spillLogger.info("second");
+        spillLogger.info("third");
+        assertEquals(Collections.singletonList("third"), spillDelegate.messages);
+
+        spillLogger.close();
+        assertEquals(Arrays.asList("third", "first", "second"), spillDelegate.messages);
+        assertEquals(0, spillLogger.droppedCount());
+    }
+
+    @Test
+    void testTemplatesAreFormattedByBackgroundThread() throws InterruptedException {
+        final RecordingLogger delegate = new RecordingLogger();
+        final AsyncLogger logger = new AsyncLogger(delegate, 8, 8, OverflowPolicy.BLOCK, Thread::new);
+        logger.start();
+
+        final StringBuilder name = new StringBuilder("order");
+        logger.info("{} #{} sent", name, 42);
+        name.setLength(0);
+        logger.info("{} and {}", -1, Long.MAX_VALUE);
+        logger.error("Failed {}", new IllegalStateException(), "truncated name");
+        logger.trace("No placeholders", 1);
+        logger.close();
+
+        assertEquals(Arrays.asList(
+                "order #42 sent",
+                "-1 and 9223372036854775807",
+                "Failed truncate java.lang.IllegalStateException",
+                "No placeholders"),
+                delegate.messages);
+    }
+
+    @Test
+    void testMessageFormatter() {
+        assertEquals("a 1 b 2", MessageFormatter.format("a {} b {}", 1, 2).toString());
+        assertEquals("x {} y", MessageFormatter.format("{} {} y", "x").toString());
+        assertEquals("{} } { 7", MessageFormatter.format("{} } { {}", "{}", 7).toString());
+        assertEquals("null", MessageFormatter.format("{}", (CharSequence) null).toString());
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import fir.needle.joint.io.ByteRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinaryLoggerTest {
+
+    @Test
+    void testRecordsAreDecodedToText() throws IOException {
+        final ByteRingBuffer ringBuffer = new ByteRingBuffer(4096);
+        final BinaryLogger logger = new BinaryLogger(ringBuffer, BinaryLogger.INFO_LEVEL, () -> 0);
+
+        logger.info("Order {} of {} filled", 42, -7);
+        logger.info("Plain message");
+        logger.trace("Not logged {}", 1);
+        logger.error("Failed {} {}", new IllegalStateException("boom"), new StringBuilder("order"), 42);
+        logger.info("Order {} of {} filled", new StringBuilder("all"), "orders");
+        assertEquals(0, logger.register("Order {} of {} filled"));
+
+        final Path file = Files.createTempFile("binary", ".log");
+        try {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                assertEquals(6, new BinaryLogWriter(channel, 1024).drain(ringBuffer));
+            }
+
+            final StringBuilder text = new StringBuilder();
+            BinaryLogDecoder.decode(file, text);
+
+            final String n = System.lineSeparator();
+            assertEquals(
+                    "1970-01-01T00:00:00Z INFO Order 42 of -7 filled" + n +
+                    "1970-01-01T00:00:00Z INFO Plain message" + n +
+                    "1970-01-01T00:00:00Z ERROR Failed order 42 java.lang.IllegalStateException: boom" + n +
+                    "1970-01-01T00:00:00Z INFO Order all of orders filled" + n,
+                    text.toString());
+            assertEquals(0, logger.droppedCount());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testRecordIsAbortedWhenArgumentChangesWhileEncoded() {
+        final ByteRingBuffer ringBuffer = new ByteRingBuffer(4096);
+        final BinaryLogger logger = new BinaryLogger(ringBuffer, BinaryLogger.INFO_LEVEL, () -> 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> logger.info("Growing {}", growing()));
+        assertThrows(IndexOutOfBoundsException.class, () -> logger.info(growing()));
+        logger.info("After {}", 1);
+
+        final int[] records = new int[1];
+        ringBuffer.read((area, startIndex, length) -> records[0]++);
+        assertEquals(3, records[0]);
+        assertEquals(0, ringBuffer.size());
+    }
+
+    // the length is read twice to size the record and grows when the argument is copied
+    private static CharSequence growing() {
+        return new CharSequence() {
+            private int calls;
+
+            @Override
+            public int length() {
+                return ++calls <= 2 ? 1 : 100;
+            }
+
+            @Override
+            public char charAt(final int index) {
+                return 'x';
+            }
+
+            @Override
+            public CharSequence subSequence(final int start, final int end) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
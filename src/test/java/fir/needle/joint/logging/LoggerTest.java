@@ -0,0 +1,89 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoggerTest {
+
+    @Test
+    void testDelegateFormatsFormattedMessage() {
+        final RecordingLogger recording = new RecordingLogger();
+        final Logger prefixing = new Logger() {
+            @Override
+            public boolean isInfoEnabled() {
+                return true;
+            }
+
+            @Override
+            public boolean isTraceEnabled() {
+                return true;
+            }
+
+            @Override
+            public boolean isErrorEnabled() {
+                return true;
+            }
+
+            @Override
+            public void info(final CharSequence message) {
+                recording.info("[service] {}", message);
+            }
+
+            @Override
+            public void trace(final CharSequence message) {
+                recording.trace("[service] {}", message);
+            }
+
+            @Override
+            public void trace(final CharSequence message, final Throwable t) {
+                recording.trace("[service] {}", t, message);
+            }
+
+            @Override
+            public void error(final CharSequence message) {
+                recording.error("[service] {} {}", message, message);
+            }
+
+            @Override
+            public void error(final CharSequence message, final Throwable t) {
+                recording.error("[service] {}", t, message);
+            }
+        };
+
+        prefixing.info("order {} filled", 42);
+        prefixing.trace("order {} of {}", "7", "AAPL");
+        prefixing.error("order {} failed", 3);
+
+        assertEquals(Arrays.asList(
+                "[service] order 42 filled",
+                "[service] order 7 of AAPL",
+                "[service] order 3 failed order 3 failed"),
+                recording.messages);
+    }
+}
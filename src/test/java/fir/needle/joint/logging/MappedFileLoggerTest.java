@@ -0,0 +1,161 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedFileLoggerTest {
+
+    @Test
+    void testLinesAreWrittenIntoRollingSegments() throws IOException, InterruptedException {
+        final Path directory = Files.createTempDirectory("mapped");
+        try {
+            final MappedFileLogger logger = MappedFileLogger.info(directory, "test", 128, 0, TimeUnit.SECONDS);
+            logger.start();
+
+            final List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int thread = t;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        logger.info("thread {} message {} \u00e9", thread, i);
+                    }
+                }));
+            }
+
+            threads.forEach(Thread::start);
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            logger.trace("not logged");
+            logger.close();
+
+            final List<Path> files = list(directory);
+            assertTrue(files.size() > 10);
+
+            final List<String> lines = new ArrayList<>();
+            for (final Path file : files) {
+                assertTrue(Files.size(file) <= 128);
+                lines.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+            }
+
+            assertEquals(200, lines.size());
+            for (final String line : lines) {
+                assertTrue(line.matches("\\d+ INFO thread \\d message \\d+ \u00e9"), line);
+            }
+            assertEquals(0, logger.droppedCount());
+        } finally {
+            for (final Path file : list(directory)) {
+                Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void testWritersMapSegmentsWithoutBackgroundThread() throws IOException, InterruptedException {
+        final Path directory = Files.createTempDirectory("mapped");
+        try {
+            final MappedFileLogger logger = MappedFileLogger.info(directory, "test", 64, 0, TimeUnit.SECONDS);
+
+            final List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int thread = t;
+                threads.add(new Thread(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        logger.info("thread {} message {}", thread, i);
+                    }
+                }));
+            }
+
+            threads.forEach(Thread::start);
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+            logger.close();
+
+            final List<String> lines = new ArrayList<>();
+            final List<Path> files = list(directory);
+            for (int i = 0; i < files.size(); i++) {
+                final Path file = directory.resolve("test-" + i + ".log");
+                assertTrue(Files.exists(file), file.toString());
+                lines.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+            }
+
+            assertEquals(200, lines.size());
+            assertEquals(0, logger.droppedCount());
+        } finally {
+            for (final Path file : list(directory)) {
+                Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    void testLoggerContinuesNumberingOfExistingFiles() throws IOException {
+        final Path directory = Files.createTempDirectory("mapped");
+        try {
+            final MappedFileLogger first = MappedFileLogger.info(directory, "test", 128, 0, TimeUnit.SECONDS);
+            first.info("before restart");
+            first.close();
+
+            final MappedFileLogger second = MappedFileLogger.info(directory, "test", 128, 0, TimeUnit.SECONDS);
+            second.info("after restart");
+            second.close();
+
+            final List<String> before = Files.readAllLines(directory.resolve("test-0.log"), StandardCharsets.UTF_8);
+            final List<String> after = Files.readAllLines(directory.resolve("test-1.log"), StandardCharsets.UTF_8);
+            assertEquals(1, before.size());
+            assertTrue(before.get(0).endsWith(" INFO before restart"), before.get(0));
+            assertEquals(1, after.size());
+            assertTrue(after.get(0).endsWith(" INFO after restart"), after.get(0));
+            assertEquals(0, second.droppedCount());
+        } finally {
+            for (final Path file : list(directory)) {
+                Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static List<Path> list(final Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
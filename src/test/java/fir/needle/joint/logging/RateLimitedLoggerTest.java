@@ -0,0 +1,123 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static fir.needle.joint.AllocationAssertions.assertAllocationFree;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitedLoggerTest {
+
+    @Test
+    void testSimilarMessagesAreRateLimitedAndSampled() {
+        final RecordingLogger delegate = new RecordingLogger();
+        final RateLimitedLogger logger = new RateLimitedLogger(delegate, 2, 5);
+
+        for (int i = 1; i <= 12; i++) {
+            logger.error("Order {} failed", new IllegalStateException(), i);
+            logger.info("Other key");
+        }
+
+        assertEquals(Arrays.asList(
+                "Order 1 failed java.lang.IllegalStateException",
+                "Other key",
+                "Order 2 failed java.lang.IllegalStateException",
+                "Other key",
+                "Order 5 failed java.lang.IllegalStateException",
+                "Other key",
+                "Order 10 failed java.lang.IllegalStateException",
+                "Other key"),
+                delegate.messages);
+
+        delegate.messages.clear();
+        assertEquals(2, logger.tick());
+        assertEquals(Arrays.asList(
+                "Order {} failed: suppressed 8 similar messages",
+                "Other key: suppressed 8 similar messages"),
+                delegate.messages.stream().sorted().collect(Collectors.toList()));
+
+        delegate.messages.clear();
+        logger.info("Other key");
+        assertEquals(0, logger.tick());
+        assertEquals(Collections.singletonList("Other key"), delegate.messages);
+    }
+
+    @Test
+    void testSuppressionIsReportedAtLevelOfFirstMessage() {
+        final RecordingLogger delegate = new RecordingLogger();
+        final RateLimitedLogger logger = new RateLimitedLogger(delegate, 0, 0);
+
+        logger.trace("Never passed");
+        logger.trace("Never passed");
+
+        assertEquals(1, logger.tick());
+        assertEquals(Collections.singletonList("Never passed: suppressed 2 similar messages"), delegate.messages);
+        assertEquals(Collections.singletonList("TRACE"), delegate.levels);
+    }
+
+    @Test
+    void testBuiltMessagesOverflowIntoSharedKey() {
+        final RecordingLogger delegate = new RecordingLogger();
+        final RateLimitedLogger logger = new RateLimitedLogger(delegate, 0, 0, 4);
+
+        for (int i = 0; i < 1_000; i++) {
+            logger.info("Order " + i + " failed");
+        }
+
+        final int keys = logger.tick();
+        assertTrue(keys <= 5, "Keys reported " + keys);
+        assertEquals(keys, delegate.messages.size());
+        assertTrue(delegate.messages.stream().anyMatch(message -> message.startsWith("<dynamic messages>")));
+
+        assertAllocationFree(() -> logger.info("Suppressed"));
+    }
+
+    @Test
+    void testBuiltMessagesDoNotTakeKeysOfConstantMessages() {
+        final RecordingLogger delegate = new RecordingLogger();
+        final RateLimitedLogger logger = new RateLimitedLogger(delegate, 2, 0);
+
+        for (int i = 0; i < 10_000; i++) {
+            logger.error("Order " + i + " failed");
+        }
+        for (int i = 0; i < 10; i++) {
+            logger.error("Connection lost");
+        }
+
+        assertEquals(Arrays.asList("Order 0 failed", "Order 1 failed", "Connection lost"), delegate.messages);
+
+        delegate.messages.clear();
+        assertEquals(2, logger.tick());
+        assertEquals(Arrays.asList(
+                "<dynamic messages>: suppressed 9998 similar messages",
+                "Connection lost: suppressed 9 similar messages"),
+                delegate.messages.stream().sorted().collect(Collectors.toList()));
+    }
+}
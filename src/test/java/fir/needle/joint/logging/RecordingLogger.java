@@ -0,0 +1,78 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+final class RecordingLogger implements Logger {
+    final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+    final List<String> levels = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+
+    @Override
+    public void info(final CharSequence message) {
+        levels.add("INFO");
+        messages.add(message.toString());
+    }
+
+    @Override
+    public void trace(final CharSequence message) {
+        levels.add("TRACE");
+        messages.add(message.toString());
+    }
+
+    @Override
+    public void trace(final CharSequence message, final Throwable t) {
+        levels.add("TRACE");
+        messages.add(message.toString() + ' ' + t);
+    }
+
+    @Override
+    public void error(final CharSequence message) {
+        levels.add("ERROR");
+        messages.add(message.toString());
+    }
+
+    @Override
+    public void error(final CharSequence message, final Throwable t) {
+        levels.add("ERROR");
+        messages.add(message.toString() + ' ' + t);
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StackTraceRendererTest {
+
+    @Test
+    void testThrowableIsRenderedWithCauses() {
+        final IllegalStateException t = new IllegalStateException("outer", new IllegalArgumentException());
+        final String rendered = new StackTraceRenderer(4).render(t, new StringBuilder()).toString();
+
+        final StackTraceElement frame = t.getStackTrace()[0];
+        assertTrue(rendered.startsWith("java.lang.IllegalStateException: outer\n\tat " + frame + "\n"), rendered);
+        assertTrue(rendered.contains("\nCaused by: java.lang.IllegalArgumentException\n\tat " + frame + "\n"));
+        assertEquals(t.getStackTrace().length + t.getCause().getStackTrace().length + 2,
+                rendered.split("\n").length);
+    }
+
+    @Test
+    void testCachedFramesAreReusedWithNewMessage() {
+        final StackTraceRenderer renderer = new StackTraceRenderer(4);
+        final StringBuilder first = new StringBuilder();
+        final StringBuilder second = new StringBuilder();
+
+        for (int i = 0; i < 2; i++) {
+            final Exception e = new Exception("message " + i);
+            renderer.render(e, i == 0 ? first : second);
+        }
+
+        assertEquals(first.toString().replace("message 0", "message 1"), second.toString());
+    }
+}
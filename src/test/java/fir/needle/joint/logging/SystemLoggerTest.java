@@ -0,0 +1,97 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SystemLoggerTest {
+    private static final String SEPARATOR = System.lineSeparator();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private PrintStream systemOut;
+    private PrintStream systemErr;
+
+    @BeforeEach
+    void setUp() {
+        systemOut = System.out;
+        systemErr = System.err;
+        System.setOut(new PrintStream(out, true));
+        System.setErr(new PrintStream(err, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.setOut(systemOut);
+        System.setErr(systemErr);
+    }
+
+    @Test
+    void testMessagesArePrintedByLevel() {
+        final SystemLogger logger = SystemLogger.info();
+        logger.info("order {} filled", 42);
+        logger.trace("not printed");
+        logger.error("failed");
+
+        assertEquals("order 42 filled" + SEPARATOR, printed(out));
+        assertEquals("failed" + SEPARATOR, printed(err));
+    }
+
+    @Test
+    void testThrowableIsPrintedInStackTraceFormat() {
+        final IllegalStateException error = new IllegalStateException("boom", new IllegalArgumentException());
+        SystemLogger.error().error("failed", error);
+
+        final String printed = printed(err);
+        assertTrue(printed.startsWith("failed java.lang.IllegalStateException: boom\n\tat "), printed);
+        assertTrue(printed.contains("\nCaused by: java.lang.IllegalArgumentException\n\tat "), printed);
+        assertTrue(printed.endsWith(")" + SEPARATOR), printed);
+    }
+
+    @Test
+    void testLongMessageIsPrintedByChunks() {
+        final StringBuilder message = new StringBuilder();
+        for (int i = 0; i < 3_000; i++) {
+            message.append(i % 7 == 0 ? "\ud83d\ude00" : "a\u00e9");
+        }
+
+        SystemLogger.info().info(message);
+
+        final String expected = message + SEPARATOR;
+        assertEquals(new String(expected.getBytes(Charset.defaultCharset()), Charset.defaultCharset()), printed(out));
+    }
+
+    private static String printed(final ByteArrayOutputStream stream) {
+        return new String(stream.toByteArray(), Charset.defaultCharset());
+    }
+}
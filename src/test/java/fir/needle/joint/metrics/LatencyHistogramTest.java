@@ -0,0 +1,89 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testBucketsCoverValuesWithBoundedError() {
+        final LatencyHistogram histogram = new LatencyHistogram(1_000_000_000L, 5);
+
+        int previous = -1;
+        for (long value = 0; value < 100_000; value++) {
+            final int index = histogram.index(value);
+            assertTrue(index == previous || index == previous + 1);
+            previous = index;
+
+            final long highest = histogram.highestValue(index);
+            assertTrue(highest >= value && highest - value <= value / 16, value + " -> " + highest);
+        }
+
+        assertEquals(histogram.index(1_000_000_000L) + 1, histogram.bucketCount());
+    }
+
+    @Test
+    void testSnapshotPercentilesAndReset() {
+        final LatencyHistogram histogram = new LatencyHistogram(10_000, 8);
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        histogram.record(1_000_000);
+
+        final HistogramSnapshot snapshot = histogram.snapshotAndReset(histogram.newSnapshot());
+        assertEquals(101, snapshot.totalCount());
+        assertEquals(51, snapshot.valueAtPercentile(50));
+        assertEquals(100, snapshot.valueAtPercentile(99));
+        assertEquals(10_000, snapshot.max());
+        assertEquals((5050 + 10_000) / 101.0, snapshot.mean());
+
+        histogram.snapshotAndReset(snapshot);
+        assertEquals(0, snapshot.totalCount());
+        assertEquals(0, snapshot.max());
+    }
+
+    @Test
+    void testStripedCounterSumsAllThreads() throws InterruptedException {
+        final StripedCounter counter = new StripedCounter(3);
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    counter.increment();
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, counter.sumThenReset());
+        assertEquals(0, counter.sum());
+    }
+}
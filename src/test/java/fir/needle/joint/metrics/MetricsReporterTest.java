@@ -0,0 +1,163 @@
+/**
+ * MIT License
+ * <p>
+ * Copyright (c) 2020 Nikita Vasilev
+ * <p>
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * <p>
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * <p>
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE  LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package fir.needle.joint.metrics;
+
+import fir.needle.joint.logging.Logger;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static fir.needle.joint.AllocationAssertions.assertAllocationFree;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricsReporterTest {
+
+    @Test
+    void testReportFormatsMetrics() {
+        final CapturingLogger logger = new CapturingLogger(true);
+        final MetricsReporter reporter = new MetricsReporter(logger);
+        final LatencyHistogram latency = reporter.histogram("latency", 10_000, 8);
+        final StripedCounter requests = reporter.counter("requests");
+
+        for (int value = 1; value <= 100; value++) {
+            latency.record(value);
+            requests.increment();
+        }
+        reporter.report();
+
+        assertEquals(Arrays.asList(
+                "latency count=100 mean=50 p50=50 p90=90 p99=99 p99.9=100 max=100",
+                "requests count=100"), logger.lines);
+    }
+
+    @Test
+    void testReportResetsMetrics() {
+        final CapturingLogger logger = new CapturingLogger(true);
+        final MetricsReporter reporter = new MetricsReporter(logger);
+        final LatencyHistogram latency = reporter.histogram("latency", 10_000, 8);
+        final StripedCounter requests = reporter.counter("requests");
+
+        latency.record(7);
+        requests.add(3);
+        reporter.report();
+        logger.lines.clear();
+
+        reporter.report();
+        assertEquals(Arrays.asList(
+                "latency count=0 mean=0 p50=0 p90=0 p99=0 p99.9=0 max=0",
+                "requests count=0"), logger.lines);
+    }
+
+    @Test
+    void testReportResetsMetricsWhenInfoIsDisabled() {
+        final CapturingLogger logger = new CapturingLogger(false);
+        final MetricsReporter reporter = new MetricsReporter(logger);
+        final LatencyHistogram latency = reporter.histogram("latency", 10_000, 8);
+        final StripedCounter requests = reporter.counter("requests");
+
+        latency.record(7);
+        requests.add(3);
+        reporter.report();
+        assertEquals(0, logger.lines.size());
+
+        logger.infoEnabled = true;
+        latency.record(5);
+        requests.increment();
+        reporter.report();
+        assertEquals(Arrays.asList(
+                "latency count=1 mean=5 p50=5 p90=5 p99=5 p99.9=5 max=5",
+                "requests count=1"), logger.lines);
+    }
+
+    @Test
+    void testRecordingAndReportingDoNotAllocate() {
+        final CapturingLogger logger = new CapturingLogger(true);
+        logger.keepLines = false;
+        final MetricsReporter reporter = new MetricsReporter(logger);
+        final LatencyHistogram latency = reporter.histogram("latency", 1_000_000, 8);
+        final StripedCounter requests = reporter.counter("requests");
+        final long[] value = new long[1];
+
+        assertAllocationFree(() -> {
+            latency.record(value[0]++ % 1_000_000);
+            requests.increment();
+        });
+
+        assertAllocationFree(reporter::report);
+    }
+
+    private static final class CapturingLogger implements Logger {
+        private final List<String> lines = new ArrayList<>();
+        private boolean infoEnabled;
+        private boolean keepLines = true;
+
+        CapturingLogger(final boolean infoEnabled) {
+            this.infoEnabled = infoEnabled;
+        }
+
+        @Override
+        public boolean isInfoEnabled() {
+            return infoEnabled;
+        }
+
+        @Override
+        public boolean isTraceEnabled() {
+            return false;
+        }
+
+        @Override
+        public boolean isErrorEnabled() {
+            return true;
+        }
+
+        @Override
+        public void info(final CharSequence message) {
+            if (keepLines) {
+                lines.add(message.toString());
+            }
+        }
+
+        @Override
+        public void trace(final CharSequence message) {
+
+        }
+
+        @Override
+        public void trace(final CharSequence message, final Throwable t) {
+
+        }
+
+        @Override
+        public void error(final CharSequence message) {
+
+        }
+
+        @Override
+        public void error(final CharSequence message, final Throwable t) {
+
+        }
+    }
+}